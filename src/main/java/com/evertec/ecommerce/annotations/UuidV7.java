@@ -0,0 +1,19 @@
+package com.evertec.ecommerce.annotations;
+
+import com.evertec.ecommerce.utils.UuidV7Generator;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates entity identifiers as time-ordered UUIDs (RFC 9562 version 7), so new rows are
+ * appended to the right edge of the primary key index instead of being scattered across it.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UuidV7 {
+}
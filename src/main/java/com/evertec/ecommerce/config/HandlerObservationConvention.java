@@ -0,0 +1,33 @@
+package com.evertec.ecommerce.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Adds a {@code handler} tag naming the controller method that served the request, such as
+ * {@code OderController.createOrder}, to the {@code http.server.requests} timers, so latency can
+ * be broken down per endpoint method rather than per URI template.
+ */
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final KeyValue NO_HANDLER = KeyValue.of("handler", "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("handler", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return NO_HANDLER;
+    }
+}
@@ -0,0 +1,61 @@
+package com.evertec.ecommerce.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache regions, backed by Caffeine through JCache. Every region Hibernate uses must
+ * be declared here with its own size and time to live; a missing region fails startup instead of
+ * silently getting an unbounded default.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String PRODUCTS_REGION = "products";
+    public static final String ORDER_DETAILS_REGION = "orderDetails";
+    public static final String ORDER_DETAILS_COLLECTION_REGION = "orders.orderDetails";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${second-level-cache.products.maximum-size:10000}") long productsMaximumSize,
+                                              @Value("${second-level-cache.products.ttl:10m}") Duration productsTtl,
+                                              @Value("${second-level-cache.order-details.maximum-size:50000}") long orderDetailsMaximumSize,
+                                              @Value("${second-level-cache.order-details.ttl:5m}") Duration orderDetailsTtl,
+                                              @Value("${second-level-cache.order-details-collection.maximum-size:10000}") long collectionMaximumSize,
+                                              @Value("${second-level-cache.order-details-collection.ttl:5m}") Duration collectionTtl) {
+        // A manager of its own per application context; managers are shared by URI within the JVM
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, PRODUCTS_REGION, productsMaximumSize, productsTtl);
+        createRegion(cacheManager, ORDER_DETAILS_REGION, orderDetailsMaximumSize, orderDetailsTtl);
+        createRegion(cacheManager, ORDER_DETAILS_COLLECTION_REGION, collectionMaximumSize, collectionTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
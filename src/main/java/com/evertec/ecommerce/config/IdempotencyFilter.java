@@ -0,0 +1,229 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.exceptions.BadRequestException;
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.exceptions.IdempotencyKeyReusedException;
+import com.evertec.ecommerce.utils.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Makes retried creations safe: a POST to one of the {@link #IDEMPOTENT_PATHS} carrying an
+ * {@code Idempotency-Key} header is processed once per user and key, and every retry with the same
+ * key gets the stored response back without reaching the controller. Runs after authorization, so
+ * keys are scoped to the authenticated user and anonymous requests never consume one.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> IDEMPOTENT_PATHS = List.of("/api/v1/orders/**", "/api/v1/ordersDetails/**");
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyStore idempotencyStore;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        this.idempotencyStore = idempotencyStore;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || IDEMPOTENT_PATHS.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, request.getRequestURI()));
+    }
+
+    /**
+     * Claims the request's idempotency key before letting it through. A key that is already stored
+     * is answered from the store: with the recorded response if the request is the same, with a
+     * 409 if the first request is still being processed, and with a 422 if the key was used for a
+     * different request. Responses below 500 are recorded; on a server error or an exception the
+     * key is freed so the client can retry with it.
+     *
+     * @param request the HttpServletRequest object, providing request information for HTTP servlets
+     * @param response the HttpServletResponse object, assisting a servlet in sending a response to the client
+     * @param filterChain the FilterChain object, allowing the filter to pass on the request and response to the next entity in the chain
+     * @throws ServletException if an exception occurs that interferes with the filter's operation
+     * @throws IOException if an I/O error occurs during the handling of the request
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new BadRequestException(IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = authentication.getName() + '\n' + idempotencyKey;
+        String fingerprint = cachedRequest.fingerprint();
+
+        Optional<IdempotencyStore.StoredRequest> stored = idempotencyStore.claim(key, fingerprint);
+        if (stored.isPresent()) {
+            answerFromStore(request, response, stored.get(), fingerprint);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+            if (cachedResponse.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                idempotencyStore.complete(key, fingerprint, cachedResponse.getStatus(), cachedResponse.getContentType(),
+                        cachedResponse.getContentAsByteArray());
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void answerFromStore(HttpServletRequest request, HttpServletResponse response,
+                                 IdempotencyStore.StoredRequest stored, String fingerprint) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request"));
+        } else if (!stored.completed()) {
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new ConflictException("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed, please retry"));
+        } else {
+            response.setStatus(stored.status());
+            if (stored.contentType() != null) {
+                response.setContentType(stored.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    /**
+     * Reads the request body up front so it can be fingerprinted and still be read by the
+     * controller. Form bodies are left to the container, which parses them into parameters.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = MediaType.APPLICATION_FORM_URLENCODED.includes(contentType(request))
+                    ? null
+                    : request.getInputStream().readAllBytes();
+        }
+
+        String fingerprint() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update((getMethod() + ' ' + getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+                for (Map.Entry<String, String[]> parameter : new TreeMap<>(getParameterMap()).entrySet()) {
+                    digest.update((parameter.getKey() + '=' + String.join(",", parameter.getValue()) + '\n').getBytes(StandardCharsets.UTF_8));
+                }
+                if (body != null) {
+                    digest.update(body);
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                return super.getInputStream();
+            }
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (body == null) {
+                return super.getReader();
+            }
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        private static MediaType contentType(HttpServletRequest request) {
+            try {
+                return request.getContentType() != null ? MediaType.parseMediaType(request.getContentType()) : MediaType.ALL;
+            } catch (InvalidMimeTypeException e) {
+                return MediaType.ALL;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.utils.SlowQueryLog;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the application's DataSource so that every statement executed through it is timed and
+ * handed to the {@link SlowQueryLog} if it is slow or sampled. Only recorded statements pay for
+ * more than the timing: their rows are counted as the result set is read, and the entry is
+ * recorded once it is closed.
+ */
+public class InspectingDataSource extends DelegatingDataSource {
+
+    private final Supplier<SlowQueryLog> slowQueryLog;
+
+    public InspectingDataSource(DataSource targetDataSource, Supplier<SlowQueryLog> slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InspectingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Forwards every call to the wrapped JDBC object, except {@code equals}, which compares proxies
+     * by identity as the JDBC objects themselves do.
+     */
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        final Object target;
+
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends ForwardingHandler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return wrap(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler extends ForwardingHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private int parameters;
+        private int batchSize;
+        private Pending pending;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            super(statement);
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters = Math.max(parameters, index);
+                } else if (name.equals("addBatch")) {
+                    batchSize++;
+                } else if (name.equals("clearParameters")) {
+                    parameters = 0;
+                } else if (name.equals("clearBatch")) {
+                    batchSize = 0;
+                } else if (name.equals("close")) {
+                    flush();
+                }
+                return forward(method, args);
+            }
+
+            flush();
+            String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : null;
+            long start = System.nanoTime();
+            Object result = forward(method, args);
+            long elapsedNanos = System.nanoTime() - start;
+
+            SlowQueryLog log = slowQueryLog.get();
+            if (log == null || !log.shouldRecord(elapsedNanos)) {
+                batchSize = 0;
+                return result;
+            }
+            if (batchSize > 0) {
+                sql = sql + " [batch of " + batchSize + "]";
+                batchSize = 0;
+            }
+            Pending current = new Pending(log, sql, elapsedNanos, parameters, log.origin());
+            if (result instanceof ResultSet resultSet) {
+                // Rows are only known once the caller has read them
+                pending = current;
+                return wrap(ResultSet.class, new ResultSetHandler(resultSet, current));
+            }
+            current.rows = rows(result);
+            current.flush();
+            return result;
+        }
+
+        private void flush() {
+            if (pending != null) {
+                pending.flush();
+                pending = null;
+            }
+        }
+
+        private long rows(Object result) throws SQLException {
+            return switch (result) {
+                case Integer count -> count;
+                case Long count -> count;
+                case int[] counts -> sum(counts);
+                case long[] counts -> sum(counts);
+                // execute() returns false when the statement produced an update count
+                case Boolean hasResultSet when !hasResultSet -> statement.getLargeUpdateCount();
+                default -> -1;
+            };
+        }
+
+        private static long sum(int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+
+        private static long sum(long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+    }
+
+    private static final class ResultSetHandler extends ForwardingHandler {
+
+        private final Pending pending;
+
+        ResultSetHandler(ResultSet resultSet, Pending pending) {
+            super(resultSet);
+            this.pending = pending;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                pending.rows++;
+            } else if (method.getName().equals("close")) {
+                pending.flush();
+            }
+            return result;
+        }
+    }
+
+    private static final class Pending {
+
+        private final SlowQueryLog log;
+        private final String sql;
+        private final long elapsedNanos;
+        private final int parameters;
+        private final String origin;
+        private long rows;
+        private boolean recorded;
+
+        Pending(SlowQueryLog log, String sql, long elapsedNanos, int parameters, String origin) {
+            this.log = log;
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+            this.parameters = parameters;
+            this.origin = origin;
+        }
+
+        void flush() {
+            if (!recorded) {
+                recorded = true;
+                log.record(new SlowQueryLog.Entry(sql, elapsedNanos, rows, parameters, origin));
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.evertec.ecommerce.config;
 
 import com.evertec.ecommerce.entities.User;
 import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.utils.JwtPrincipalCache;
 import com.evertec.ecommerce.utils.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserRepository userRepository;
+    private final JwtPrincipalCache jwtPrincipalCache;
 
 
     private static final String BEARER_PREFIX = "Bearer ";
@@ -50,30 +53,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Authenticates a JWT token by validating its signature and verifying the token's
-     * association with a user in the system. If valid, sets the Spring Security context
-     * with the authenticated user's details.
+     * Authenticates a JWT token by validating its signature and verifying that the token's
+     * version claim matches the current token version of its user, so revoked tokens are
+     * rejected. The signature is verified once and the subject, version and expiration are
+     * read from the same parsed claims. Tokens that were already verified are served
+     * from the {@link JwtPrincipalCache} until they expire, skipping both the signature check
+     * and the user lookup. A request that looked the user up just before a logout committed
+     * still completes, but the token it verified is not served from the cache afterwards. If
+     * valid, sets the Spring Security context with the authenticated user's details.
      *
      * @param token the JWT token to be authenticated
      */
     private void authenticateToken(String token) {
-        if (jwtTokenUtil.validateToken(token)) {
-            String email = jwtTokenUtil.getEmailFromToken(token);
-            Optional<User> foundUser = userRepository.findByEmail(email);
+        Optional<JwtPrincipalCache.CachedPrincipal> cachedPrincipal = jwtPrincipalCache.get(token);
+        if (cachedPrincipal.isPresent()) {
+            setAuthentication(cachedPrincipal.get().email());
+            return;
+        }
 
-            if (foundUser.isPresent() && token.equals(foundUser.get().getToken())) {
-                UserDetails userDetails = org.springframework.security.core.userdetails.User
-                        .withUsername(email)
-                        .password("")
-                        .authorities("USER")
-                        .build();
+        Optional<Claims> claims = jwtTokenUtil.parseClaims(token);
+        if (claims.isPresent()) {
+            String email = claims.get().getSubject();
+            Optional<Integer> tokenVersion = jwtTokenUtil.getTokenVersion(claims.get());
+            // Read before the lookup, so a revocation committing after the lookup keeps this token out of the cache
+            long generation = jwtPrincipalCache.generation(email);
+            Optional<User> foundUser = userRepository.findByEmail(email);
 
-                SecurityContextHolder.getContext().setAuthentication(
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())
-                );
+            if (foundUser.isPresent() && tokenVersion.isPresent() && tokenVersion.get() == foundUser.get().getTokenVersion()) {
+                jwtPrincipalCache.put(token, email, claims.get().getExpiration().getTime(), generation);
+                setAuthentication(email);
             }
         }
     }
+
+    /**
+     * Sets the Spring Security context with an authenticated principal for the given email.
+     *
+     * @param email the email of the authenticated user
+     */
+    private void setAuthentication(String email) {
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername(email)
+                .password("")
+                .authorities("USER")
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())
+        );
+    }
 }
 
 
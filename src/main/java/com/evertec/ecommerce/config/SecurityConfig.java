@@ -1,6 +1,7 @@
 package com.evertec.ecommerce.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,12 +10,14 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
     /**
      * Configures the Spring Security filter chain for the application. This configuration includes:
@@ -23,6 +26,7 @@ public class SecurityConfig {
      * - Disabling Cross-Site Request Forgery (CSRF) protection.
      * - Configuring headers to allow frames from the same origin (useful for H2 console).
      * - Adding a custom JWT authentication filter for processing JWT tokens before the standard authentication filter.
+     * - Adding the idempotency filter after authorization, so only authenticated requests can claim an Idempotency-Key.
      *
      * @param http the HttpSecurity object used to configure security settings for HTTP requests
      * @return a configured {@code SecurityFilterChain} instance
@@ -43,16 +47,20 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
                 .addFilterBefore(jwtAuthenticationFilter, org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(idempotencyFilter, AuthorizationFilter.class)
                 .build();
     }
 
     /**
      * Provides a BCryptPasswordEncoder bean to be used for password encoding in the application.
+     * Each increment of the strength doubles the cost of hashing and verifying a password; existing
+     * hashes keep verifying after a change because the cost is stored in each hash.
      *
+     * @param strength the log2 number of BCrypt rounds, between 4 and 31
      * @return an instance of BCryptPasswordEncoder
      */
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    BCryptPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.utils.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the application's DataSource through an {@link InspectingDataSource}, which replaces
+ * {@code spring.jpa.show-sql} as the way to see what SQL runs. Disable with
+ * {@code sql.inspection.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.inspection.enabled", matchIfMissing = true)
+public class SqlInspectionConfig {
+
+    // Static, and resolving the log lazily, so the post-processor does not pull metrics and
+    // configuration beans into existence before the DataSource
+    @Bean
+    public static BeanPostProcessor inspectingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InspectingDataSource)) {
+                    return new InspectingDataSource(dataSource, SingletonSupplier.of(slowQueryLog::getIfAvailable));
+                }
+                return bean;
+            }
+        };
+    }
+}
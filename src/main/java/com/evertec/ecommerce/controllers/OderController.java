@@ -1,5 +1,7 @@
 package com.evertec.ecommerce.controllers;
 
+import com.evertec.ecommerce.dto.OrderBulkUpdateStatusDTO;
+import com.evertec.ecommerce.dto.OrderStatusResultDTO;
 import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.service.OrderService;
@@ -8,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -32,6 +35,11 @@ public class OderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(orderUpdateStatusDTO));
     }
 
+    @PutMapping("/update/bulk")
+    public ResponseEntity<List<OrderStatusResultDTO>> updateOrders(@Valid @RequestBody OrderBulkUpdateStatusDTO orderBulkUpdateStatusDTO){
+        return ResponseEntity.ok(orderService.updateOrderStatuses(orderBulkUpdateStatusDTO));
+    }
+
     @PutMapping("/cancel/{orderId}")
     public ResponseEntity<Order> cancelOrder(@PathVariable UUID orderId ){
         return ResponseEntity.ok(orderService.cancelOrder(orderId));
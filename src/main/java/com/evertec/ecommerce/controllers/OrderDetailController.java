@@ -1,14 +1,19 @@
 package com.evertec.ecommerce.controllers;
 
+import com.evertec.ecommerce.dto.OrderDetailBulkCreateDTO;
 import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
 import com.evertec.ecommerce.entities.OrderDetail;
 import com.evertec.ecommerce.service.OrderDetailService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("api/v1/ordersDetails")
 @RequiredArgsConstructor
@@ -20,4 +25,9 @@ public class OrderDetailController {
     public ResponseEntity<OrderDetail> creatOrderDetail(OrderDetailCreateDTO orderDetailCreateDTO){
         return ResponseEntity.ok(orderDetailService.createOrderDetail(orderDetailCreateDTO));
     }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<OrderDetail>> createOrderDetails(@Valid @RequestBody OrderDetailBulkCreateDTO orderDetailBulkCreateDTO){
+        return ResponseEntity.ok(orderDetailService.createOrderDetails(orderDetailBulkCreateDTO));
+    }
 }
@@ -1,15 +1,22 @@
 package com.evertec.ecommerce.controllers;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
 import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.dto.ProductSearchResultDTO;
+import com.evertec.ecommerce.dto.ProductStockDTO;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.utils.ExportFormat;
+import com.evertec.ecommerce.utils.SortDirection;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.evertec.ecommerce.service.ProductService;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,14 +27,37 @@ public class ProductController {
     private final ProductService productService;
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts(){
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<CursorPageDTO<Product>> getProducts(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             @RequestParam(defaultValue = "ASC") SortDirection sort){
+        return ResponseEntity.ok(productService.getProducts(cursor, size, sort));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "NDJSON") ExportFormat format){
+        StreamingResponseBody body = outputStream -> productService.exportProducts(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format.getFileExtension())
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResultDTO> searchProducts(@RequestParam("q") String query,
+                                                                 @RequestParam(defaultValue = "20") int limit){
+        return ResponseEntity.ok(productService.searchProducts(query, limit));
     }
 
     @GetMapping("/{productId}")
     public ResponseEntity<Product> getProductById(@PathVariable UUID productId){
         return ResponseEntity.ok(productService.getProductById(productId));
     }
+
+    @GetMapping("/{productId}/stock")
+    public ResponseEntity<ProductStockDTO> getProductStock(@PathVariable UUID productId){
+        return ResponseEntity.ok(productService.getProductStock(productId));
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductDTO productDTO){
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(productDTO));
@@ -1,5 +1,7 @@
 package com.evertec.ecommerce.controllers;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
+import com.evertec.ecommerce.dto.OrderHistoryQueryDTO;
 import com.evertec.ecommerce.dto.UserCreateAndLoginDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.User;
@@ -7,9 +9,10 @@ import com.evertec.ecommerce.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -29,8 +32,14 @@ public class UserController {
         return ResponseEntity.ok(userService.loginUser(userCreateAndLoginDTO));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(@AuthenticationPrincipal UserDetails userDetails) {
+        userService.revokeTokens(userDetails.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/orders/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable UUID userId){
-        return ResponseEntity.ok(userService.getOrdersByUserId(userId));
+    public ResponseEntity<CursorPageDTO<Order>> getOrdersByUserId(@PathVariable UUID userId, OrderHistoryQueryDTO orderHistoryQueryDTO){
+        return ResponseEntity.ok(userService.getOrdersByUserId(userId, orderHistoryQueryDTO));
     }
 }
@@ -0,0 +1,36 @@
+package com.evertec.ecommerce.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Builds a page from a keyset query that fetched one row more than the page size.
+     *
+     * @param rows the rows returned by the query, at most pageSize + 1
+     * @param pageSize the number of rows to return to the client
+     * @param cursorOf encodes the continuation token pointing at a given row
+     * @return the page, with a next cursor pointing at its last row if the extra row was found
+     */
+    public static <T> CursorPageDTO<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> items = hasNext ? rows.subList(0, pageSize) : rows;
+        return CursorPageDTO.<T>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .build();
+    }
+}
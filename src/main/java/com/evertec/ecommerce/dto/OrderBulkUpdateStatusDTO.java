@@ -0,0 +1,16 @@
+package com.evertec.ecommerce.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderBulkUpdateStatusDTO {
+
+    @NotEmpty
+    @Size(max = 5000, message = "At most 5000 orders can be updated in one request")
+    private List<@Valid OrderStatusLineDTO> orders;
+}
@@ -0,0 +1,20 @@
+package com.evertec.ecommerce.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class OrderDetailBulkCreateDTO {
+
+    @NotNull
+    private UUID orderId;
+    @NotEmpty
+    @Size(max = 500, message = "At most 500 lines can be added in one request")
+    private List<@Valid OrderDetailLineDTO> lines;
+}
@@ -0,0 +1,16 @@
+package com.evertec.ecommerce.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class OrderDetailLineDTO {
+
+    @NotNull
+    private UUID productId;
+    @DecimalMin(value = "1", message = "Quantity must be greater than or equal to 1")
+    private int quantity;
+}
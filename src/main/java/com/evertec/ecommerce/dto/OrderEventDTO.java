@@ -0,0 +1,17 @@
+package com.evertec.ecommerce.dto;
+
+import com.evertec.ecommerce.utils.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEventDTO {
+
+    private UUID orderId;
+    private OrderStatus status;
+}
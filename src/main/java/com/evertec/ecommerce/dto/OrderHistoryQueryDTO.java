@@ -0,0 +1,21 @@
+package com.evertec.ecommerce.dto;
+
+import com.evertec.ecommerce.utils.OrderStatus;
+import com.evertec.ecommerce.utils.SortDirection;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OrderHistoryQueryDTO {
+
+    private String cursor;
+    private int size = 20;
+    private SortDirection sort = SortDirection.DESC;
+    private OrderStatus status;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
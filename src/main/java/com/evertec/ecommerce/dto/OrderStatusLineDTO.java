@@ -0,0 +1,16 @@
+package com.evertec.ecommerce.dto;
+
+import com.evertec.ecommerce.utils.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class OrderStatusLineDTO {
+
+    @NotNull
+    private UUID orderId;
+    @NotNull
+    private OrderStatus status;
+}
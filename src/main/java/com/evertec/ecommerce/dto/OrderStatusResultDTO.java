@@ -0,0 +1,19 @@
+package com.evertec.ecommerce.dto;
+
+import com.evertec.ecommerce.utils.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class OrderStatusResultDTO {
+
+    public enum Outcome { UPDATED, UNCHANGED, NOT_FOUND, CONFLICT }
+
+    private UUID orderId;
+    private OrderStatus status;
+    private Outcome outcome;
+    private String message;
+}
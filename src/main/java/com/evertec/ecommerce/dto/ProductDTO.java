@@ -1,10 +1,13 @@
 package com.evertec.ecommerce.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class ProductDTO {
     
@@ -14,5 +17,8 @@ public class ProductDTO {
     private String description;
     @NotNull
     @DecimalMin(value = "0.0", message = "Price must be greater than or equal to 0.")
-    private double price;
+    @Digits(integer = 17, fraction = 2, message = "Price must have at most 2 decimal places.")
+    private BigDecimal price;
+    @DecimalMin(value = "0", message = "Stock must be greater than or equal to 0.")
+    private int stock;
 }
@@ -0,0 +1,16 @@
+package com.evertec.ecommerce.dto;
+
+import com.evertec.ecommerce.entities.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+
+    private String query;
+    private long total;
+    private List<Product> items;
+}
@@ -0,0 +1,14 @@
+package com.evertec.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class ProductStockDTO {
+
+    private UUID productId;
+    private long stock;
+}
@@ -1,5 +1,7 @@
 package com.evertec.ecommerce.entities;
 
+import com.evertec.ecommerce.annotations.UuidV7;
+import com.evertec.ecommerce.config.HibernateCacheConfig;
 import com.evertec.ecommerce.utils.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
@@ -7,9 +9,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -19,22 +25,33 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Orders")
+@Table(name = "Orders", indexes = @Index(name = "idx_orders_user_created_at_id", columnList = "user_id, createdAt, id"))
 public class Order {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(columnDefinition = "UUID")
     private UUID id;
+    // Holds only the line ids; the lines themselves come from the orderDetails entity region
     @OneToMany(mappedBy = "order")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ORDER_DETAILS_COLLECTION_REGION)
     private List<OrderDetail> orderDetails;
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, columnDefinition = "VARCHAR(255) DEFAULT 'PENDING'")
     private OrderStatus orderStatus;
-    @ManyToOne
+    // Only changed through OrderRepository.incrementTotal, so saving the entity never overwrites a concurrent increment
+    @Builder.Default
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal total = BigDecimal.ZERO;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
     private User user;
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    private Long version;
     @CreationTimestamp
     private LocalDateTime createdAt;
     @UpdateTimestamp
@@ -1,14 +1,20 @@
 package com.evertec.ecommerce.entities;
 
+import com.evertec.ecommerce.annotations.UuidV7;
+import com.evertec.ecommerce.config.HibernateCacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -17,18 +23,23 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ORDER_DETAILS_REGION)
 public class OrderDetail {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(columnDefinition = "UUID")
     private UUID id;
     private int quantity;
-    @ManyToOne
+    // Price of the product when the line was added, so later catalog changes do not alter the order
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal unitPrice;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     @JsonIgnore
     private Product product;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     @JsonIgnore
     private Order order;
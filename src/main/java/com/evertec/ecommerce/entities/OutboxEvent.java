@@ -0,0 +1,42 @@
+package com.evertec.ecommerce.entities;
+
+import com.evertec.ecommerce.annotations.UuidV7;
+import com.evertec.ecommerce.utils.OrderEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An order lifecycle event written in the same transaction as the change it describes, and
+ * delivered to the configured sink afterwards by the OutboxDispatcher. Unpublished events are
+ * read in id order, which is creation order because ids are time-ordered.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_outbox_event_published_at_id", columnList = "publishedAt, id"))
+public class OutboxEvent {
+
+    @Id
+    @UuidV7
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+    @Column(nullable = false, columnDefinition = "UUID")
+    private UUID aggregateId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventType eventType;
+    @Column(nullable = false, length = 2000)
+    private String payload;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
@@ -1,14 +1,19 @@
 package com.evertec.ecommerce.entities;
 
+import com.evertec.ecommerce.annotations.UuidV7;
+import com.evertec.ecommerce.config.HibernateCacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -18,15 +23,18 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PRODUCTS_REGION)
+@Table(indexes = @Index(name = "idx_product_created_at_id", columnList = "createdAt, id"))
 public class Product {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(columnDefinition = "UUID")
     private UUID id;
     private String name;
     private String description;
-    private double price;
+    @Column(precision = 19, scale = 2)
+    private BigDecimal price;
     @OneToMany(mappedBy = "product")
     @JsonIgnore
     private List<OrderDetail> orderDetails;
@@ -0,0 +1,38 @@
+package com.evertec.ecommerce.entities;
+
+import com.evertec.ecommerce.annotations.UuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One slice of a product's stock. The stock of a product is the sum of its shards, and each
+ * reservation decrements a single shard, so concurrent buyers of the same product lock different
+ * rows instead of queueing on one.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_product_stock_shard_product_shard", columnNames = {"product_id", "shard"}))
+public class ProductStockShard {
+
+    @Id
+    @UuidV7
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnore
+    private Product product;
+    @Column(nullable = false)
+    private int shard;
+    @Column(nullable = false)
+    private int quantity;
+}
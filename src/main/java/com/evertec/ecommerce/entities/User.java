@@ -1,5 +1,6 @@
 package com.evertec.ecommerce.entities;
 
+import com.evertec.ecommerce.annotations.UuidV7;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -19,19 +20,26 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "AppUsers")
+@Table(name = "AppUsers", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User {
 
+    public static final String EMAIL_CONSTRAINT = "uk_app_users_email";
+
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(columnDefinition = "UUID")
     private UUID id;
     @Email
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     @JsonIgnore
     private String password;
+    // Issued at login and never stored: a token stays valid while its version claim matches tokenVersion
+    @Transient
     private String token;
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int tokenVersion;
     @OneToMany(mappedBy = "user")
     private List<Order> orders;
     @CreationTimestamp
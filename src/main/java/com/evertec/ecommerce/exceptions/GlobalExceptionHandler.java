@@ -1,5 +1,6 @@
 package com.evertec.ecommerce.exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -63,4 +64,62 @@ public class GlobalExceptionHandler {
         errorResponse.put("message", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
+
+    /**
+     * Handles ConflictException and constructs a response entity with error details.
+     *
+     * @param ex the ConflictException thrown when a request conflicts with the current state of a resource
+     * @return a ResponseEntity containing a map with error information and a status of 409 Conflict
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflictException(ConflictException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Conflict");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Handles IdempotencyKeyReusedException and constructs a response entity with error details.
+     *
+     * @param ex the IdempotencyKeyReusedException thrown when an Idempotency-Key is sent again with a different request
+     * @return a ResponseEntity containing a map with error information and a status of 422 Unprocessable Entity
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Unprocessable Entity");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    /**
+     * Handles BadRequestException and constructs a response entity with error details.
+     *
+     * @param ex the BadRequestException thrown when a request parameter cannot be processed
+     * @return a ResponseEntity containing a map with error information and a status of 400 Bad Request
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequestException(BadRequestException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Bad Request");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handles TooManyRequestsException and constructs a response entity with error details.
+     *
+     * @param ex the TooManyRequestsException thrown when the server is saturated with work of the requested kind
+     * @return a ResponseEntity containing a map with error information, a Retry-After header and a status of 429 Too Many Requests
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
 }
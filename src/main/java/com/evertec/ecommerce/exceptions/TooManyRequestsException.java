@@ -0,0 +1,8 @@
+package com.evertec.ecommerce.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
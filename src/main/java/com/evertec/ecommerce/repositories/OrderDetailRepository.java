@@ -2,10 +2,21 @@ package com.evertec.ecommerce.repositories;
 
 import com.evertec.ecommerce.entities.OrderDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, UUID> {
+
+    @Query("SELECT new com.evertec.ecommerce.repositories.OrderDetailRepository$ProductQuantity(d.product.id, SUM(d.quantity)) " +
+            "FROM OrderDetail d WHERE d.order.id IN :orderIds GROUP BY d.product.id")
+    List<ProductQuantity> sumQuantitiesByProduct(@Param("orderIds") Collection<UUID> orderIds);
+
+    record ProductQuantity(UUID productId, long quantity) {
+    }
 }
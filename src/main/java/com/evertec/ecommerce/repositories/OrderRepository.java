@@ -1,15 +1,56 @@
 package com.evertec.ecommerce.repositories;
 
 import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.utils.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
 
-    Optional<List<Order>> getOrdersByUserId(UUID userId);
+    @EntityGraph(attributePaths = {"orderDetails", "orderDetails.product"})
+    Optional<Order> findWithOrderDetailsById(UUID id);
+
+    @EntityGraph(attributePaths = {"orderDetails", "orderDetails.product"})
+    List<Order> findWithOrderDetailsByIdIn(Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.total = o.total + :amount WHERE o.id = :id")
+    int incrementTotal(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Locks the row so no line can be added or released concurrently; taken before any stock shard
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    // Locks the rows so their statuses cannot change before the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.evertec.ecommerce.repositories.OrderRepository$StatusView(o.id, o.orderStatus) FROM Order o WHERE o.id IN :ids")
+    List<StatusView> findStatusesForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // Bulk updates bypass @Version and @UpdateTimestamp, so both are maintained by the statement itself
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :target, o.version = o.version + 1, o.updatedAt = :updatedAt " +
+            "WHERE o.id IN :ids AND o.orderStatus = :expected")
+    int transitionStatuses(@Param("ids") Collection<UUID> ids,
+                           @Param("expected") OrderStatus expected,
+                           @Param("target") OrderStatus target,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    record StatusView(UUID id, OrderStatus orderStatus) {
+    }
 }
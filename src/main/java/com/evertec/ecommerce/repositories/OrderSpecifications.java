@@ -0,0 +1,70 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.utils.KeysetCursor;
+import com.evertec.ecommerce.utils.OrderStatus;
+import com.evertec.ecommerce.utils.SortDirection;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Composable filters for order history queries. Each factory returns null when its filter is
+ * not set, so it can be chained unconditionally with {@link Specification#and(Specification)}.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> belongsToUser(UUID userId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("orderStatus"), status);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Order> createdBefore(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Restricts the query to the orders that come after the given keyset cursor in (createdAt, id) order.
+     *
+     * @param cursor the position of the last order of the previous page, or null for the first page
+     * @return the keyset predicate, or null if there is no cursor
+     */
+    public static Specification<Order> afterCursor(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> {
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+            if (cursor.direction() == SortDirection.DESC) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.lessThan(createdAt, cursor.createdAt()),
+                        criteriaBuilder.and(criteriaBuilder.equal(createdAt, cursor.createdAt()), criteriaBuilder.lessThan(id, cursor.id())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(createdAt, cursor.createdAt()),
+                    criteriaBuilder.and(criteriaBuilder.equal(createdAt, cursor.createdAt()), criteriaBuilder.greaterThan(id, cursor.id())));
+        };
+    }
+}
@@ -1,11 +1,40 @@
 package com.evertec.ecommerce.repositories;
 
 import com.evertec.ecommerce.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
+
+    List<Product> findAllByOrderByCreatedAtAscIdAsc(Pageable pageable);
+
+    List<Product> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Product> findPageAfter(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageBefore(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // A full scan would otherwise push every product through the second-level cache
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt ASC, p.id ASC")
+    Stream<Product> streamAll();
 }
@@ -0,0 +1,20 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.entities.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Loads the products with the given ids, taking those already in the persistence context or
+     * the second-level cache from there and reading only the rest from the database, with batched
+     * IN queries. {@code findAllById} always runs a query and never consults the cache.
+     *
+     * @param ids the unique identifiers of the products
+     * @return the products found, in no particular order; unknown ids are left out
+     */
+    List<Product> loadAllById(Collection<UUID> ids);
+}
@@ -0,0 +1,31 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.entities.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> loadAllById(Collection<UUID> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                // The second-level cache is only consulted when a cache mode is given explicitly
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
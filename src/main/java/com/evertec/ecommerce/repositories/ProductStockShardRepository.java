@@ -0,0 +1,35 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.entities.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, UUID> {
+
+    // Never takes a shard below zero; returns 0 when the shard does not hold enough stock
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :quantity " +
+            "WHERE s.product.id = :productId AND s.shard = :shard AND s.quantity >= :quantity")
+    int decrement(@Param("productId") UUID productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :quantity WHERE s.product.id = :productId AND s.shard = :shard")
+    int increment(@Param("productId") UUID productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    @Query("SELECT new com.evertec.ecommerce.repositories.ProductStockShardRepository$ShardQuantity(s.shard, s.quantity) " +
+            "FROM ProductStockShard s WHERE s.product.id = :productId ORDER BY s.shard")
+    List<ShardQuantity> findShardQuantities(@Param("productId") UUID productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s WHERE s.product.id = :productId")
+    long sumQuantity(@Param("productId") UUID productId);
+
+    record ShardQuantity(int shard, int quantity) {
+    }
+}
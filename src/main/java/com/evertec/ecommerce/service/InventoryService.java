@@ -0,0 +1,15 @@
+package com.evertec.ecommerce.service;
+
+import com.evertec.ecommerce.entities.Product;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface InventoryService {
+
+    void initializeStock(Product product, int quantity);
+    void reserve(Map<UUID, Integer> quantities);
+    void releaseOrders(Collection<UUID> orderIds);
+    long getStock(UUID productId);
+}
@@ -1,9 +1,13 @@
 package com.evertec.ecommerce.service;
 
+import com.evertec.ecommerce.dto.OrderDetailBulkCreateDTO;
 import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
 import com.evertec.ecommerce.entities.OrderDetail;
 
+import java.util.List;
+
 public interface OrderDetailService {
 
     OrderDetail createOrderDetail(OrderDetailCreateDTO orderDetailCreateDTO);
+    List<OrderDetail> createOrderDetails(OrderDetailBulkCreateDTO orderDetailBulkCreateDTO);
 }
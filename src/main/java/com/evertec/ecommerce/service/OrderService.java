@@ -1,8 +1,11 @@
 package com.evertec.ecommerce.service;
 
+import com.evertec.ecommerce.dto.OrderBulkUpdateStatusDTO;
+import com.evertec.ecommerce.dto.OrderStatusResultDTO;
 import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
 import com.evertec.ecommerce.entities.Order;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface OrderService {
@@ -11,4 +14,5 @@ public interface OrderService {
     Order getOrderById(UUID orderId);
     Order updateOrderStatus(OrderUpdateStatusDTO orderUpdateStatusDTO);
     Order cancelOrder(UUID orderId);
+    List<OrderStatusResultDTO> updateOrderStatuses(OrderBulkUpdateStatusDTO orderBulkUpdateStatusDTO);
 }
@@ -0,0 +1,12 @@
+package com.evertec.ecommerce.service;
+
+import com.evertec.ecommerce.utils.OrderStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface OutboxService {
+
+    void recordStatus(UUID orderId, OrderStatus status);
+    void recordStatuses(Collection<UUID> orderIds, OrderStatus status);
+}
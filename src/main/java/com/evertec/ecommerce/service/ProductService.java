@@ -1,14 +1,23 @@
 package com.evertec.ecommerce.service;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
 import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.dto.ProductSearchResultDTO;
+import com.evertec.ecommerce.dto.ProductStockDTO;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.utils.ExportFormat;
+import com.evertec.ecommerce.utils.SortDirection;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.UUID;
 
 public interface ProductService {
 
     Product createProduct(ProductDTO productDTO);
-    List<Product> getAllProducts();
+    CursorPageDTO<Product> getProducts(String cursor, int size, SortDirection sort);
+    ProductSearchResultDTO searchProducts(String query, int limit);
     Product getProductById(UUID productId);
+    ProductStockDTO getProductStock(UUID productId);
+    void exportProducts(ExportFormat format, OutputStream outputStream) throws IOException;
 }
@@ -0,0 +1,141 @@
+package com.evertec.ecommerce.serviceImpl;
+
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.entities.ProductStockShard;
+import com.evertec.ecommerce.exceptions.BadRequestException;
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.repositories.OrderDetailRepository;
+import com.evertec.ecommerce.repositories.ProductStockShardRepository;
+import com.evertec.ecommerce.service.InventoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private final ProductStockShardRepository productStockShardRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final int shards;
+
+    public InventoryServiceImpl(ProductStockShardRepository productStockShardRepository,
+                                OrderDetailRepository orderDetailRepository,
+                                @Value("${inventory.stock-shards:8}") int shards) {
+        this.productStockShardRepository = productStockShardRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Creates the stock shards of a newly created product, spreading the quantity evenly across
+     * them.
+     *
+     * @param product the product the stock belongs to
+     * @param quantity the initial number of units in stock
+     */
+    @Override
+    @Transactional
+    public void initializeStock(Product product, int quantity) {
+        List<ProductStockShard> productStockShards = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            productStockShards.add(ProductStockShard.builder()
+                    .product(product)
+                    .shard(shard)
+                    .quantity(quantity / shards + (shard < quantity % shards ? 1 : 0))
+                    .build());
+        }
+        productStockShardRepository.saveAll(productStockShards);
+    }
+
+    /**
+     * Reserves stock for every product in the map, as part of the caller's transaction. Each
+     * product is decremented with a conditional UPDATE on one shard picked at random, so concurrent
+     * buyers of a hot product mostly lock different rows and no shard ever goes below zero. If no
+     * single shard holds enough, the quantity is gathered from several shards in shard order.
+     * Products are processed in id order so two transactions never wait on each other's shards in
+     * opposite orders.
+     *
+     * @param quantities the number of units to reserve, by product id
+     * @throws ConflictException if a product does not have enough stock; the caller's transaction
+     *                           is then rolled back together with the reservations already made
+     * @throws BadRequestException if a quantity is lower than 1
+     */
+    @Override
+    @Transactional
+    public void reserve(Map<UUID, Integer> quantities) {
+        new TreeMap<>(quantities).forEach(this::reserve);
+    }
+
+    /**
+     * Returns the stock held by the lines of the given orders, as part of the caller's
+     * transaction. Must be called exactly once per order, when it leaves PENDING for CANCELLED.
+     *
+     * @param orderIds the unique identifiers of the cancelled orders
+     */
+    @Override
+    @Transactional
+    public void releaseOrders(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        orderDetailRepository.sumQuantitiesByProduct(orderIds).stream()
+                .sorted((a, b) -> a.productId().compareTo(b.productId()))
+                .forEach(line -> release(line.productId(), Math.toIntExact(line.quantity())));
+    }
+
+    /**
+     * Retrieves the number of units of a product currently in stock.
+     *
+     * @param productId the unique identifier of the product
+     * @return the sum of the product's shards, or 0 if it has no stock
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long getStock(UUID productId) {
+        return productStockShardRepository.sumQuantity(productId);
+    }
+
+    private void reserve(UUID productId, int quantity) {
+        // A negative decrement would add stock
+        if (quantity < 1) {
+            throw new BadRequestException("Quantity must be greater than or equal to 1");
+        }
+        int start = randomShard();
+        for (int i = 0; i < shards; i++) {
+            if (productStockShardRepository.decrement(productId, (start + i) % shards, quantity) == 1) {
+                return;
+            }
+        }
+
+        int remaining = quantity;
+        for (ProductStockShardRepository.ShardQuantity shard : productStockShardRepository.findShardQuantities(productId)) {
+            int taken = Math.min(shard.quantity(), remaining);
+            if (taken > 0 && productStockShardRepository.decrement(productId, shard.shard(), taken) == 1) {
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                return;
+            }
+        }
+        throw new ConflictException("Insufficient stock for product with id: " + productId);
+    }
+
+    private void release(UUID productId, int quantity) {
+        // Shard 0 always exists, even if the product was stocked with fewer shards than configured now
+        if (productStockShardRepository.increment(productId, randomShard(), quantity) == 0) {
+            productStockShardRepository.increment(productId, 0, quantity);
+        }
+    }
+
+    private int randomShard() {
+        return ThreadLocalRandom.current().nextInt(shards);
+    }
+}
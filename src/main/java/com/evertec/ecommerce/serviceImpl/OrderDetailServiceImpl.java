@@ -1,16 +1,30 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.OrderDetailBulkCreateDTO;
 import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.dto.OrderDetailLineDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.OrderDetail;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.exceptions.ConflictException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
 import com.evertec.ecommerce.repositories.OrderDetailRepository;
 import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.ProductRepository;
+import com.evertec.ecommerce.service.InventoryService;
 import com.evertec.ecommerce.service.OrderDetailService;
+import com.evertec.ecommerce.utils.OrderStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,22 +33,99 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     private final OrderDetailRepository orderDetailRepository;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
 
     /**
-     * Creates a new OrderDetail entity based on the provided data transfer object.
+     * Creates a new OrderDetail entity based on the provided data transfer object. The order row is
+     * locked first and must still be PENDING, so the line cannot slip past a concurrent
+     * cancellation. The quantity is then reserved from the product's stock, the line stores a snapshot of the product's current price,
+     * and the order's total is incremented by the line amount in the same transaction with a single
+     * atomic UPDATE.
      *
      * @param orderDetailCreateDTO the data transfer object containing information about the order detail to be created, including the order ID, product ID, and quantity
      * @return the newly created OrderDetail entity
      * @throws NotFoundException if the order or product with the provided IDs do not exist
+     * @throws ConflictException if the order is no longer PENDING or the product does not have enough stock
      */
     @Override
+    @Transactional
     public OrderDetail createOrderDetail(OrderDetailCreateDTO orderDetailCreateDTO) {
-        Order order = orderRepository.findById(orderDetailCreateDTO.getOrderId()).orElseThrow(() -> new NotFoundException("Order not found with id: " + orderDetailCreateDTO.getOrderId()));
+        Order order = lockPendingOrder(orderDetailCreateDTO.getOrderId());
         Product product = productRepository.findById(orderDetailCreateDTO.getProductId()).orElseThrow(() -> new NotFoundException("Product not found with id: " + orderDetailCreateDTO.getProductId()));
-        return orderDetailRepository.save(OrderDetail.builder()
+        inventoryService.reserve(Map.of(product.getId(), orderDetailCreateDTO.getQuantity()));
+        OrderDetail orderDetail = orderDetailRepository.save(OrderDetail.builder()
                         .order(order)
                         .product(product)
                         .quantity(orderDetailCreateDTO.getQuantity())
+                        .unitPrice(product.getPrice())
                 .build());
+        orderRepository.incrementTotal(order.getId(), lineAmount(orderDetail));
+        return orderDetail;
+    }
+
+    /**
+     * Creates all the lines of one order in a single transaction, after locking the order row and
+     * checking that it is still PENDING. Products are resolved from the
+     * second-level cache, with a single IN query for the ones it does not hold, and the
+     * OrderDetail rows are written with Hibernate JDBC batching, so the cost no longer grows by
+     * one request and three statements per line. The quantities are
+     * reserved per product, lines for the same product being added up first. Each line stores a
+     * snapshot of its product's current price, and the order's total is incremented once by the
+     * sum of all lines.
+     *
+     * @param orderDetailBulkCreateDTO the data transfer object containing the order ID and the product/quantity lines to add
+     * @return the newly created OrderDetail entities, in the order of the requested lines
+     * @throws NotFoundException if the order or any of the products with the provided IDs do not exist
+     * @throws ConflictException if the order is no longer PENDING or any product does not have enough stock; no line is added
+     */
+    @Override
+    @Transactional
+    public List<OrderDetail> createOrderDetails(OrderDetailBulkCreateDTO orderDetailBulkCreateDTO) {
+        Order order = lockPendingOrder(orderDetailBulkCreateDTO.getOrderId());
+
+        Set<UUID> productIds = orderDetailBulkCreateDTO.getLines().stream()
+                .map(OrderDetailLineDTO::getProductId)
+                .collect(Collectors.toSet());
+        Map<UUID, Product> products = productRepository.loadAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        if (products.size() != productIds.size()) {
+            String missing = productIds.stream()
+                    .filter(productId -> !products.containsKey(productId))
+                    .map(UUID::toString)
+                    .collect(Collectors.joining(", "));
+            throw new NotFoundException("Product not found with id: " + missing);
+        }
+        inventoryService.reserve(orderDetailBulkCreateDTO.getLines().stream()
+                .collect(Collectors.toMap(OrderDetailLineDTO::getProductId, OrderDetailLineDTO::getQuantity, Integer::sum)));
+
+        List<OrderDetail> orderDetails = orderDetailBulkCreateDTO.getLines().stream()
+                .map(line -> OrderDetail.builder()
+                        .order(order)
+                        .product(products.get(line.getProductId()))
+                        .quantity(line.getQuantity())
+                        .unitPrice(products.get(line.getProductId()).getPrice())
+                        .build())
+                .toList();
+        List<OrderDetail> savedOrderDetails = orderDetailRepository.saveAll(orderDetails);
+        BigDecimal amount = savedOrderDetails.stream()
+                .map(OrderDetailServiceImpl::lineAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        orderRepository.incrementTotal(order.getId(), amount);
+        return savedOrderDetails;
+    }
+
+    // The order row is locked before any stock shard, in the same order as cancellations, so the
+    // two never deadlock, and a cancellation waits for this line to commit before releasing stock
+    private Order lockPendingOrder(UUID orderId) {
+        Order order = orderRepository.findByIdForUpdate(orderId).orElseThrow(() -> new NotFoundException("Order not found with id: " + orderId));
+        if (order.getOrderStatus() != OrderStatus.PENDING) {
+            throw new ConflictException("Cannot add lines to an order with status " + order.getOrderStatus());
+        }
+        return order;
+    }
+
+    private static BigDecimal lineAmount(OrderDetail orderDetail) {
+        return orderDetail.getUnitPrice().multiply(BigDecimal.valueOf(orderDetail.getQuantity()));
     }
 }
@@ -1,30 +1,54 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.OrderBulkUpdateStatusDTO;
+import com.evertec.ecommerce.dto.OrderStatusLineDTO;
+import com.evertec.ecommerce.dto.OrderStatusResultDTO;
 import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.ConflictException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
 import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.InventoryService;
 import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.service.OutboxService;
 import com.evertec.ecommerce.utils.OrderStatus;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    static final int MAX_STATUS_UPDATE_ATTEMPTS = 3;
+    static final int STATUS_UPDATE_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Creates a new order for a given user with an initial status of "PENDING".
+     * Creates a new order for a given user with an initial status of "PENDING" and records an
+     * ORDER_CREATED event in the outbox within the same transaction.
      *
      * @param userId the unique identifier of the user for whom the order is created
      * @return the created Order instance
@@ -34,14 +58,17 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public Order createOrder(UUID userId) {
         User user = userRepository.findUserById(userId).orElseThrow(() -> new NotFoundException("User Not Found with id: " + userId));
-        return orderRepository.save(Order.builder()
+        Order order = orderRepository.save(Order.builder()
                 .user(user)
                 .orderStatus(OrderStatus.PENDING)
                 .build());
+        outboxService.recordStatus(order.getId(), OrderStatus.PENDING);
+        return order;
     }
 
     /**
-     * Retrieves an order by its unique identifier.
+     * Retrieves an order by its unique identifier, together with its order details and their
+     * products, in a single query.
      *
      * @param orderId the unique identifier of the order to retrieve
      * @return the order associated with the provided identifier
@@ -50,37 +77,136 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Order getOrderById(UUID orderId) {
-        return orderRepository.findById(orderId).orElseThrow(() -> new NotFoundException("Order Not Found with id: " + orderId));
+        return orderRepository.findWithOrderDetailsById(orderId).orElseThrow(() -> new NotFoundException("Order Not Found with id: " + orderId));
     }
 
     /**
-     * Updates the status of an order based on the provided details.
+     * Updates the status of an order based on the provided details, following the transitions
+     * allowed by {@link OrderStatus#canTransitionTo(OrderStatus)}. Requesting the status the order
+     * already has is a no-op. See {@link #transition(UUID, OrderStatus)} for how concurrent
+     * updates are resolved.
      *
      * @param orderUpdateStatusDTO the data transfer object containing the order ID
      *                             and the new status for the order
      * @return the updated Order entity after applying the new status
      * @throws NotFoundException if the order with the specified ID is not found
+     * @throws ConflictException if the transition is not allowed or the order kept changing concurrently
      */
     @Override
-    @Transactional
     public Order updateOrderStatus(OrderUpdateStatusDTO orderUpdateStatusDTO) {
-        Order order = orderRepository.findById(orderUpdateStatusDTO.getOrderId()).orElseThrow(() -> new NotFoundException("Order Not Found with id: " + orderUpdateStatusDTO.getOrderId()));
-        order.setOrderStatus(orderUpdateStatusDTO.getStatus());
-        return orderRepository.save(order);
+        return transition(orderUpdateStatusDTO.getOrderId(), orderUpdateStatusDTO.getStatus());
     }
 
     /**
-     * Cancels an existing order by updating its status to "CANCELLED".
+     * Cancels an existing order by updating its status to "CANCELLED" and returning the stock
+     * reserved by its lines. Only pending orders can be cancelled; cancelling an already cancelled
+     * order is a no-op.
      *
      * @param orderId the unique identifier of the order to be canceled
      * @return the updated {@link Order} with its status set to "CANCELLED"
      * @throws NotFoundException if no order is found with the specified ID
+     * @throws ConflictException if the order is already completed or kept changing concurrently
      */
     @Override
-    @Transactional
     public Order cancelOrder(UUID orderId) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new NotFoundException("Order Not Found with id: " + orderId));
-        order.setOrderStatus(OrderStatus.CANCELLED);
-        return orderRepository.save(order);
+        return transition(orderId, OrderStatus.CANCELLED);
+    }
+
+    /**
+     * Applies a batch of status changes and reports the outcome of each one, in request order. The
+     * batch is processed in chunks of {@link #STATUS_UPDATE_CHUNK_SIZE} orders, each in its own
+     * transaction, so a large batch never holds locks on all of its rows at once. Within a chunk
+     * the current statuses are read and locked with one query and the allowed transitions are
+     * applied with one guarded UPDATE per target status; unknown ids and illegal transitions are
+     * reported per item instead of failing the batch. Lines are applied in order, so a later line
+     * for the same order sees the status set by an earlier one. Cancelled orders return their
+     * reserved stock, and every applied transition is recorded in the outbox in the chunk's
+     * transaction.
+     *
+     * @param orderBulkUpdateStatusDTO the data transfer object containing the orders and their new statuses
+     * @return one result per requested change, in the order of the request
+     */
+    @Override
+    public List<OrderStatusResultDTO> updateOrderStatuses(OrderBulkUpdateStatusDTO orderBulkUpdateStatusDTO) {
+        List<OrderStatusLineDTO> lines = orderBulkUpdateStatusDTO.getOrders();
+        List<OrderStatusResultDTO> results = new ArrayList<>(lines.size());
+        for (int from = 0; from < lines.size(); from += STATUS_UPDATE_CHUNK_SIZE) {
+            List<OrderStatusLineDTO> chunk = lines.subList(from, Math.min(from + STATUS_UPDATE_CHUNK_SIZE, lines.size()));
+            results.addAll(transactionTemplate.execute(status -> transitionChunk(chunk)));
+        }
+        return results;
+    }
+
+    private List<OrderStatusResultDTO> transitionChunk(List<OrderStatusLineDTO> chunk) {
+        Map<UUID, OrderStatus> statuses = new HashMap<>();
+        orderRepository.findStatusesForUpdate(chunk.stream().map(OrderStatusLineDTO::getOrderId).collect(Collectors.toSet()))
+                .forEach(view -> statuses.put(view.id(), view.orderStatus()));
+
+        OrderStatusResultDTO[] results = new OrderStatusResultDTO[chunk.size()];
+        // Only pending orders can change, so each order is planned for at most one transition
+        Map<OrderStatus, Set<UUID>> planned = new EnumMap<>(OrderStatus.class);
+        for (int i = 0; i < chunk.size(); i++) {
+            UUID orderId = chunk.get(i).getOrderId();
+            OrderStatus target = chunk.get(i).getStatus();
+            OrderStatus current = statuses.get(orderId);
+            if (current == null) {
+                results[i] = new OrderStatusResultDTO(orderId, null, OrderStatusResultDTO.Outcome.NOT_FOUND, "Order Not Found with id: " + orderId);
+            } else if (current == target) {
+                results[i] = new OrderStatusResultDTO(orderId, current, OrderStatusResultDTO.Outcome.UNCHANGED, null);
+            } else if (!current.canTransitionTo(target)) {
+                results[i] = new OrderStatusResultDTO(orderId, current, OrderStatusResultDTO.Outcome.CONFLICT,
+                        "Cannot change order status from " + current + " to " + target);
+            } else {
+                results[i] = new OrderStatusResultDTO(orderId, target, OrderStatusResultDTO.Outcome.UPDATED, null);
+                planned.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(orderId);
+                statuses.put(orderId, target);
+            }
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+        planned.forEach((target, orderIds) -> {
+            orderRepository.transitionStatuses(orderIds, OrderStatus.PENDING, target, updatedAt);
+            outboxService.recordStatuses(orderIds, target);
+            if (target == OrderStatus.CANCELLED) {
+                inventoryService.releaseOrders(orderIds);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Moves an order to the target status in its own transaction. The order's version is checked
+     * when the transaction commits; if another transaction changed the order in the meantime, the
+     * whole read-validate-write cycle is retried against the fresh state, up to
+     * {@link #MAX_STATUS_UPDATE_ATTEMPTS} times. A retry may find that the concurrent change
+     * already made the transition (no-op) or made it impossible (ConflictException). Only an
+     * actual change is recorded in the outbox, so a no-op publishes nothing.
+     */
+    private Order transition(UUID orderId, OrderStatus target) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Order order = orderRepository.findById(orderId).orElseThrow(() -> new NotFoundException("Order Not Found with id: " + orderId));
+                    if (order.getOrderStatus() == target) {
+                        return order;
+                    }
+                    if (!order.getOrderStatus().canTransitionTo(target)) {
+                        throw new ConflictException("Cannot change order status from " + order.getOrderStatus() + " to " + target);
+                    }
+                    order.setOrderStatus(target);
+                    if (target == OrderStatus.CANCELLED) {
+                        // Waits for lines being added to commit, so their stock is released too
+                        orderRepository.findStatusesForUpdate(List.of(orderId));
+                        inventoryService.releaseOrders(List.of(orderId));
+                    }
+                    outboxService.recordStatus(orderId, target);
+                    return orderRepository.save(order);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_STATUS_UPDATE_ATTEMPTS) {
+                    throw new ConflictException("Order " + orderId + " was modified concurrently, please retry");
+                }
+            }
+        }
     }
 }
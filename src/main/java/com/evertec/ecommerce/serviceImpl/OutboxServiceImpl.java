@@ -0,0 +1,67 @@
+package com.evertec.ecommerce.serviceImpl;
+
+import com.evertec.ecommerce.dto.OrderEventDTO;
+import com.evertec.ecommerce.entities.OutboxEvent;
+import com.evertec.ecommerce.repositories.OutboxEventRepository;
+import com.evertec.ecommerce.service.OutboxService;
+import com.evertec.ecommerce.utils.OrderEventType;
+import com.evertec.ecommerce.utils.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records that an order reached the given status. Must run inside the transaction that made
+     * the change, so the event is stored if and only if the change commits.
+     *
+     * @param orderId the unique identifier of the order
+     * @param status the status the order moved to; PENDING records the order's creation
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatus(UUID orderId, OrderStatus status) {
+        outboxEventRepository.save(event(orderId, status));
+    }
+
+    /**
+     * Records that several orders reached the same status, writing the events with Hibernate JDBC
+     * batching. Must run inside the transaction that made the change.
+     *
+     * @param orderIds the unique identifiers of the orders
+     * @param status the status the orders moved to
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatuses(Collection<UUID> orderIds, OrderStatus status) {
+        List<OutboxEvent> events = orderIds.stream().map(orderId -> event(orderId, status)).toList();
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent event(UUID orderId, OrderStatus status) {
+        try {
+            return OutboxEvent.builder()
+                    .aggregateId(orderId)
+                    .eventType(OrderEventType.forStatus(status))
+                    .payload(objectMapper.writeValueAsString(new OrderEventDTO(orderId, status)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event of order " + orderId, e);
+        }
+    }
+}
@@ -1,60 +1,226 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
 import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.dto.ProductSearchResultDTO;
+import com.evertec.ecommerce.dto.ProductStockDTO;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.exceptions.BadRequestException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import com.evertec.ecommerce.repositories.ProductRepository;
+import com.evertec.ecommerce.service.InventoryService;
 import com.evertec.ecommerce.service.ProductService;
+import com.evertec.ecommerce.utils.ExportFormat;
+import com.evertec.ecommerce.utils.KeysetCursor;
+import com.evertec.ecommerce.utils.ProductCache;
+import com.evertec.ecommerce.utils.ProductSearchIndex;
+import com.evertec.ecommerce.utils.SortDirection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final String CSV_HEADER = "id,name,description,price,createdAt,updatedAt";
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final InventoryService inventoryService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Creates and saves a new product entity in the database using the provided ProductDTO.
+     * Creates and saves a new product entity in the database using the provided ProductDTO, together
+     * with its initial stock. The product is evicted from the {@link ProductCache} and becomes searchable
+     * once the transaction commits.
      *
-     * @param productDTO the Data Transfer Object (DTO) containing product information such as name, description, and price
+     * @param productDTO the Data Transfer Object (DTO) containing product information such as name, description, price and stock
      * @return the newly created and saved Product instance
      */
     @Override
     @Transactional
     public Product createProduct(ProductDTO productDTO) {
-        return productRepository.save(Product.builder().name(productDTO
+        Product product = productRepository.save(Product.builder().name(productDTO
                 .getName())
                 .description(productDTO.getDescription())
                 .price(productDTO.getPrice())
                 .build());
+        inventoryService.initializeStock(product, productDTO.getStock());
+        productCache.invalidateAfterCommit(product.getId());
+        productSearchIndex.addAfterCommit(product);
+        return product;
+    }
+
+    /**
+     * Retrieves one page of the product catalog using keyset pagination over (createdAt, id).
+     * Each page is a bounded index range scan, so latency does not grow with the page depth
+     * the way an OFFSET query would.
+     *
+     * @param cursor the opaque continuation token returned with the previous page, or null for the first page
+     * @param size the requested page size, clamped between 1 and {@value #MAX_PAGE_SIZE}
+     * @param sort the creation date ordering of the catalog
+     * @return a {@link CursorPageDTO} with the products of the page and the token for the next one
+     * @throws com.evertec.ecommerce.exceptions.BadRequestException if the cursor is malformed or was issued for another sort
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Product> getProducts(String cursor, int size, SortDirection sort) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether another page exists without a COUNT query
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Product> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = sort == SortDirection.DESC
+                    ? productRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                    : productRepository.findAllByOrderByCreatedAtAscIdAsc(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor, sort);
+            products = sort == SortDirection.DESC
+                    ? productRepository.findPageBefore(after.createdAt(), after.id(), limit)
+                    : productRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+
+        return CursorPageDTO.of(products, pageSize, last -> new KeysetCursor(sort, last.getCreatedAt(), last.getId()).encode());
     }
 
     /**
-     * Retrieves a list of all available products from the database.
+     * Searches the name and description of every product through the in-memory
+     * {@link ProductSearchIndex}. A product matches when it contains every word of the query, whole
+     * or as the start of a longer word; matches are ranked by relevance, name matches first.
+     * Only the returned products are read, through the second-level cache.
      *
-     * @return a list of {@link Product} objects representing all the products in the repository
+     * @param query the words to look for
+     * @param limit the maximum number of products to return, clamped between 1 and {@value #MAX_PAGE_SIZE}
+     * @return a {@link ProductSearchResultDTO} with the number of matching products and the best ones, most relevant first
+     * @throws BadRequestException if the query contains no letters or digits
      */
     @Override
     @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductSearchResultDTO searchProducts(String query, int limit) {
+        if (query == null || query.chars().noneMatch(Character::isLetterOrDigit)) {
+            throw new BadRequestException("Search query must contain at least one letter or digit");
+        }
+        ProductSearchIndex.SearchResult result = productSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        List<UUID> productIds = result.hits().stream().map(ProductSearchIndex.Hit::productId).toList();
+        Map<UUID, Product> products = productIds.isEmpty()
+                ? Map.of()
+                : productRepository.loadAllById(productIds).stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> items = productIds.stream().map(products::get).filter(Objects::nonNull).toList();
+        return new ProductSearchResultDTO(query, result.total(), items);
     }
 
     /**
-     * Retrieves a product by its unique identifier.
+     * Retrieves a product by its unique identifier through the {@link ProductCache}.
+     * No transaction is opened here so cache hits never borrow a database connection.
      *
      * @param productId the unique identifier of the product to retrieve
      * @return the {@link Product} entity matching the given identifier
      * @throws NotFoundException if no product is found with the specified identifier
      */
     @Override
-    @Transactional(readOnly = true)
     public Product getProductById(UUID productId) {
-        return productRepository.findById(productId).orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+        return productCache.get(productId).orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+    }
+
+    /**
+     * Retrieves the number of units of a product currently in stock. Stock changes with every
+     * order line, so unlike the product itself it is always read from the database.
+     *
+     * @param productId the unique identifier of the product
+     * @return a {@link ProductStockDTO} with the product's current stock
+     * @throws NotFoundException if no product is found with the specified identifier
+     */
+    @Override
+    public ProductStockDTO getProductStock(UUID productId) {
+        Product product = getProductById(productId);
+        return new ProductStockDTO(product.getId(), inventoryService.getStock(product.getId()));
+    }
+
+    /**
+     * Streams the whole product catalog to the given output stream, one row at a time, as
+     * newline-delimited JSON or CSV. Rows are read through a forward-only database cursor and
+     * detached from the persistence context once written, so heap usage stays constant regardless
+     * of the catalog size.
+     *
+     * @param format the output format of the export
+     * @param outputStream the stream the export is written to; it is flushed but not closed
+     * @throws IOException if writing to the output stream fails
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(Product.class);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, product);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(product));
+                }
+                writer.write('\n');
+                entityManager.detach(product);
+
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, Product product) throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(product.getId()),
+                csvEscape(product.getName()),
+                csvEscape(product.getDescription()),
+                String.valueOf(product.getPrice()),
+                String.valueOf(product.getCreatedAt()),
+                String.valueOf(product.getUpdatedAt())));
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 }
@@ -1,83 +1,168 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
+import com.evertec.ecommerce.dto.OrderHistoryQueryDTO;
 import com.evertec.ecommerce.dto.UserCreateAndLoginDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.BadRequestException;
 import com.evertec.ecommerce.exceptions.EmailAlreadyExistsException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
+import com.evertec.ecommerce.exceptions.TooManyRequestsException;
 import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.UserRepository;
 import com.evertec.ecommerce.service.UserService;
+import com.evertec.ecommerce.utils.JwtPrincipalCache;
 import com.evertec.ecommerce.utils.JwtTokenUtil;
+import com.evertec.ecommerce.utils.KeysetCursor;
+import com.evertec.ecommerce.utils.PasswordHasher;
+import com.evertec.ecommerce.utils.SortDirection;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
+import static com.evertec.ecommerce.repositories.OrderSpecifications.*;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    static final int MAX_ORDER_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenUtil jwtTokenUtil;
+    private final JwtPrincipalCache jwtPrincipalCache;
 
     /**
-     * Creates a new user in the system.
+     * Creates a new user in the system, storing the password as a BCrypt hash. The hash is
+     * computed on the bounded {@link PasswordHasher} pool, outside of any transaction, so no
+     * database connection is held while hashing. There is no lookup before the insert: the unique
+     * constraint on {@code User.email} alone decides whether the email is taken. The insert is
+     * flushed immediately and a violation of that constraint is reported as an existing email, so
+     * each sign-up costs a single statement and only one of several concurrent sign-ups for the same
+     * email succeeds. Hashing for taken emails is bounded by the {@link PasswordHasher} queue.
      *
      * @param userCreateAndLoginDTO a DTO containing the user's email and password
      * @return the created {@link User} entity
      * @throws EmailAlreadyExistsException if a user with the provided email already exists
+     * @throws TooManyRequestsException if too many password hashes are already queued
      */
     @Override
-    @Transactional
     public User createUser(UserCreateAndLoginDTO userCreateAndLoginDTO) {
-        if (userRepository.findByEmail(userCreateAndLoginDTO.getEmail()).isPresent()) {
-            throw new EmailAlreadyExistsException();
-        }
-        return userRepository.save(User.builder()
+        User user = User.builder()
                 .email(userCreateAndLoginDTO.getEmail())
-                .password(userCreateAndLoginDTO.getPassword())
-                .build());
+                .password(passwordHasher.encode(userCreateAndLoginDTO.getPassword()))
+                .build();
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new EmailAlreadyExistsException();
+            }
+            throw e;
+        }
     }
 
     /**
-     * Logs in a user by verifying their credentials and generating a JSON Web Token (JWT).
-     * If successful, updates and returns the user with the newly generated token.
+     * Logs in a user by verifying their credentials and generating a JSON Web Token (JWT) that
+     * carries the user's current token version. Login does not write to the database: the token
+     * is returned to the caller only, and stays valid until it expires or
+     * {@link #revokeTokens(String)} increments the user's token version. The password is verified
+     * on the bounded {@link PasswordHasher} pool, outside of any transaction.
      *
      * @param userCreateAndLoginDTO an object containing the user's email and password
-     * @return the authenticated User object with an updated token field
+     * @return the authenticated User object with the token field set
      * @throws NotFoundException if the email is not found in the repository or if the password does not match
+     * @throws TooManyRequestsException if too many password checks are already queued
      */
     @Override
-    @Transactional
     public User loginUser(UserCreateAndLoginDTO userCreateAndLoginDTO) {
         User user = userRepository.findByEmail(userCreateAndLoginDTO.getEmail())
                 .orElseThrow(() -> new NotFoundException("Invalid email or password"));
 
-        if (passwordEncoder.matches(userCreateAndLoginDTO.getPassword(), user.getPassword())) {
-            String token = jwtTokenUtil.generateToken(user.getEmail());
-            user.setToken(token);
-            return userRepository.save(user);
+        if (passwordHasher.matches(userCreateAndLoginDTO.getPassword(), user.getPassword())) {
+            user.setToken(jwtTokenUtil.generateToken(user.getEmail(), user.getTokenVersion()));
+            return user;
         } else {
             throw new NotFoundException("Invalid email or password");
         }
     }
 
     /**
-     * Retrieves a list of orders associated with the specified user ID.
+     * Revokes every token issued to the user so far by incrementing the user's token version, then
+     * evicts the user's tokens from the {@link JwtPrincipalCache} once the increment is committed.
+     *
+     * @param email the email of the user whose tokens are to be revoked
+     * @throws NotFoundException if no user exists with the given email
+     */
+    @Override
+    public void revokeTokens(String email) {
+        if (userRepository.incrementTokenVersion(email) == 0) {
+            throw new NotFoundException("User Not Found with email: " + email);
+        }
+        jwtPrincipalCache.invalidateAll(email);
+    }
+
+    /**
+     * Retrieves one page of the order history of the specified user, using keyset pagination over
+     * (createdAt, id) on the (user_id, created_at) index, optionally filtered by status and by a
+     * [from, to) creation date range. The page costs two queries regardless of the history size:
+     * one for the orders and one loading their order details and products.
      *
      * @param userId the unique identifier of the user whose orders are to be retrieved
-     * @return a list of orders belonging to the specified user, or null if no orders are found
+     * @param orderHistoryQueryDTO the cursor, page size, sort direction and filters of the request
+     * @return a {@link CursorPageDTO} with the orders of the page and the token for the next one
+     * @throws BadRequestException if the cursor is invalid or the date range is empty
      */
     @Override
-    @Transactional
-    public List<Order> getOrdersByUserId(UUID userId) {
-       return orderRepository.getOrdersByUserId(userId).orElse(null);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Order> getOrdersByUserId(UUID userId, OrderHistoryQueryDTO orderHistoryQueryDTO) {
+        if (orderHistoryQueryDTO.getFrom() != null && orderHistoryQueryDTO.getTo() != null
+                && !orderHistoryQueryDTO.getFrom().isBefore(orderHistoryQueryDTO.getTo())) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        int pageSize = Math.min(Math.max(orderHistoryQueryDTO.getSize(), 1), MAX_ORDER_PAGE_SIZE);
+        SortDirection sort = orderHistoryQueryDTO.getSort();
+        String cursor = orderHistoryQueryDTO.getCursor();
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor, sort);
+
+        Specification<Order> specification = Specification.where(belongsToUser(userId))
+                .and(hasStatus(orderHistoryQueryDTO.getStatus()))
+                .and(createdFrom(orderHistoryQueryDTO.getFrom()))
+                .and(createdBefore(orderHistoryQueryDTO.getTo()))
+                .and(afterCursor(after));
+        Sort.Direction direction = sort == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        // One extra row tells whether another page exists without a COUNT query
+        List<Order> orders = orderRepository.findBy(specification, query -> query
+                .sortBy(Sort.by(direction, "createdAt", "id"))
+                .limit(pageSize + 1)
+                .all());
+
+        CursorPageDTO<Order> page = CursorPageDTO.of(orders, pageSize, last -> new KeysetCursor(sort, last.getCreatedAt(), last.getId()).encode());
+        if (!page.getItems().isEmpty()) {
+            // Initializes the details of the already loaded orders in one query instead of one per order
+            orderRepository.findWithOrderDetailsByIdIn(page.getItems().stream().map(Order::getId).toList());
+        }
+        return page;
+    }
 
+    private static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        // Databases report the constraint with schema or index decorations, e.g. PUBLIC.UK_APP_USERS_EMAIL_INDEX_8 on H2
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
     }
 }
@@ -4,20 +4,25 @@ import com.evertec.ecommerce.entities.Product;
 import com.evertec.ecommerce.entities.User;
 import com.evertec.ecommerce.repositories.UserRepository;
 import com.evertec.ecommerce.repositories.ProductRepository;
+import com.evertec.ecommerce.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class DataSeeder implements CommandLineRunner {
 
+    private static final int INITIAL_STOCK = 100;
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final InventoryService inventoryService;
 
     /**
      * Checks the existence of an admin user by email and creates a new admin user
@@ -38,13 +43,13 @@ public class DataSeeder implements CommandLineRunner {
         // Add predefined computing products
         if (productRepository.count() == 0) {
             productRepository.saveAll(List.of(
-                    Product.builder().name("Laptop").description("High-performance laptop").price(1200.00).build(),
-                    Product.builder().name("Desktop PC").description("Powerful gaming desktop").price(1500.00).build(),
-                    Product.builder().name("Monitor").description("4K UHD Monitor").price(300.00).build(),
-                    Product.builder().name("Mechanical Keyboard").description("RGB backlit keyboard").price(100.00).build(),
-                    Product.builder().name("Mouse").description("Wireless ergonomic mouse").price(50.00).build(),
-                    Product.builder().name("External Hard Drive").description("1TB USB-C Hard Drive").price(120.00).build()
-            ));
+                    Product.builder().name("Laptop").description("High-performance laptop").price(new BigDecimal("1200.00")).build(),
+                    Product.builder().name("Desktop PC").description("Powerful gaming desktop").price(new BigDecimal("1500.00")).build(),
+                    Product.builder().name("Monitor").description("4K UHD Monitor").price(new BigDecimal("300.00")).build(),
+                    Product.builder().name("Mechanical Keyboard").description("RGB backlit keyboard").price(new BigDecimal("100.00")).build(),
+                    Product.builder().name("Mouse").description("Wireless ergonomic mouse").price(new BigDecimal("50.00")).build(),
+                    Product.builder().name("External Hard Drive").description("1TB USB-C Hard Drive").price(new BigDecimal("120.00")).build()
+            )).forEach(product -> inventoryService.initializeStock(product, INITIAL_STOCK));
         }
     }
 }
@@ -0,0 +1,76 @@
+package com.evertec.ecommerce.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, StoredRequest> cache;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${idempotency.store.maximum-size:64MB}") DataSize maximumSize,
+                            @Value("${idempotency.store.ttl:1h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, StoredRequest request) -> key.length() + request.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencyKeys");
+    }
+
+    /**
+     * Atomically claims a key for a request that is about to be processed. Exactly one of several
+     * concurrent callers with the same key gets an empty result and must later either
+     * {@link #complete} or {@link #release} the key; the others get what is already stored.
+     *
+     * @param key the idempotency key, scoped to the caller
+     * @param fingerprint a digest of the request the key is sent with
+     * @return an empty Optional if the key was free, otherwise the request already stored under it
+     */
+    public Optional<StoredRequest> claim(String key, String fingerprint) {
+        return Optional.ofNullable(cache.asMap().putIfAbsent(key, StoredRequest.inFlight(fingerprint)));
+    }
+
+    /**
+     * Stores the response of a claimed request so that retries with the same key replay it.
+     *
+     * @param key the idempotency key, scoped to the caller
+     * @param fingerprint a digest of the request the key was sent with
+     * @param status the HTTP status of the response
+     * @param contentType the content type of the response, or null if it has no body
+     * @param body the response body
+     */
+    public void complete(String key, String fingerprint, int status, String contentType, byte[] body) {
+        cache.put(key, new StoredRequest(fingerprint, true, status, contentType, body));
+    }
+
+    /**
+     * Frees a claimed key without storing a response, so the request can be retried with it.
+     *
+     * @param key the idempotency key, scoped to the caller
+     */
+    public void release(String key) {
+        cache.invalidate(key);
+    }
+
+    public record StoredRequest(String fingerprint, boolean completed, int status, String contentType, byte[] body) {
+
+        static StoredRequest inFlight(String fingerprint) {
+            return new StoredRequest(fingerprint, false, 0, null, new byte[0]);
+        }
+
+        int weight() {
+            return fingerprint.length() + body.length;
+        }
+    }
+}
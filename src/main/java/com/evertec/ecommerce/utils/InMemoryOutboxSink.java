@@ -0,0 +1,40 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps delivered events in memory, in delivery order. Meant for tests; enable with
+ * {@code outbox.sink=in-memory}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "in-memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final ConcurrentLinkedQueue<OutboxEvent> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        this.events.addAll(events);
+    }
+
+    /**
+     * Returns the events delivered so far, oldest first.
+     *
+     * @return a snapshot of the delivered events
+     */
+    public List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    /**
+     * Forgets every delivered event.
+     */
+    public void clear() {
+        events.clear();
+    }
+}
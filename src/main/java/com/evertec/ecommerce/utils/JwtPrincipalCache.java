@@ -0,0 +1,131 @@
+package com.evertec.ecommerce.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtPrincipalCache {
+
+    private final Cache<String, CachedPrincipal> cache;
+    // Revocation generation by email, bumped on every revocation. Kept for a token lifetime, so it
+    // outlives every principal cached with an older generation
+    private final Cache<String, Long> generations = Caffeine.newBuilder()
+            .expireAfterWrite(JwtTokenUtil.TOKEN_LIFETIME)
+            .build();
+
+    public JwtPrincipalCache(@Value("${security.jwt.principal-cache.maximum-size:10000}") long maximumSize,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtPrincipals");
+    }
+
+    /**
+     * Looks up the principal previously authenticated with the given token.
+     * Entries are dropped as soon as the token's exp claim is reached, so a hit
+     * always refers to a token that is still within its validity window. Principals cached
+     * before the user's last revocation are never returned.
+     *
+     * @param token the raw JWT token sent by the client
+     * @return the cached principal, or an empty Optional if the token has not been authenticated yet
+     */
+    public Optional<CachedPrincipal> get(String token) {
+        String key = hash(token);
+        CachedPrincipal principal = cache.getIfPresent(key);
+        if (principal == null) {
+            return Optional.empty();
+        }
+        if (principal.generation() != generation(principal.email())) {
+            cache.asMap().remove(key, principal);
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Returns the revocation generation of the given user. Callers verifying a token read it before
+     * looking the user up and pass it to {@link #put}, so a revocation committed after that lookup
+     * is detected even though the lookup saw the old token version.
+     *
+     * @param email the email of the user
+     * @return the number of revocations of the user's tokens within the last token lifetime
+     */
+    public long generation(String email) {
+        Long generation = generations.getIfPresent(email);
+        return generation != null ? generation : 0;
+    }
+
+    /**
+     * Stores the principal that a verified token resolves to until the token expires.
+     *
+     * @param token the raw JWT token that was verified against the user repository
+     * @param email the email of the authenticated user
+     * @param expiresAtMillis the token's exp claim in epoch milliseconds
+     * @param generation the user's revocation generation, read before the user was looked up
+     */
+    public void put(String token, String email, long expiresAtMillis, long generation) {
+        // Entries of an older generation are ignored by get anyway; this only avoids storing them
+        if (generation == generation(email)) {
+            cache.put(hash(token), new CachedPrincipal(email, expiresAtMillis, generation));
+        }
+    }
+
+    /**
+     * Removes the cached principals of every token issued to the given user, e.g. when the user's
+     * tokens are revoked, and bumps the user's revocation generation so principals stored by
+     * requests still verifying a token are not served either. Revocation is rare, so this scans
+     * the cache rather than keeping an index by email.
+     *
+     * @param email the email of the user whose tokens are to be evicted
+     */
+    public void invalidateAll(String email) {
+        generations.asMap().merge(email, 1L, Long::sum);
+        cache.asMap().values().removeIf(principal -> principal.email().equals(email));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record CachedPrincipal(String email, long expiresAtMillis, long generation) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,66 +1,92 @@
 package com.evertec.ecommerce.utils;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenUtil {
 
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    public static final Duration TOKEN_LIFETIME = Duration.ofHours(1);
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
 
+    // JwtParser instances are immutable and thread-safe, so one parser is shared by all requests
+    private final JwtParser jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtTokenUtil(MeterRegistry meterRegistry) {
+        this.validTokens = validationTimer(meterRegistry, "valid");
+        this.invalidTokens = validationTimer(meterRegistry, "invalid");
+    }
 
     /**
-     * Generates a JSON Web Token (JWT) for the specified email.
+     * Generates a JSON Web Token (JWT) for the specified email, carrying the user's current token
+     * version so that the token can be revoked by incrementing the version.
      *
      * @param email the email for which the token is to be generated
+     * @param tokenVersion the user's current token version
      * @return a signed JWT as a String
      */
-    public String generateToken(String email) {
-        // 1 Hour
-        long EXPIRATION_TIME = 1000 * 60 * 60;
+    public String generateToken(String email, int tokenVersion) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis()))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Validates the provided JWT token by verifying its signature and claims.
+     * Verifies the signature of the provided JWT token and returns its claims in a single parse.
+     * The time taken is recorded by the {@code security.jwt.validation} timer, tagged with the
+     * outcome.
      *
-     * @param token the JWT token to be validated
-     * @return true if the token is valid and properly signed, false otherwise
+     * @param token the JWT token to be parsed
+     * @return the verified claims, or an empty Optional if the token is malformed, expired or not properly signed
      */
-    public boolean validateToken(String token) {
+    public Optional<Claims> parseClaims(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
         }
     }
 
     /**
-     * Extracts the email address from the provided JWT token.
+     * Reads the token version carried by verified claims.
      *
-     * @param token the JWT token from which to extract the email
-     * @return the email address contained within the token's subject field
+     * @param claims the claims returned by {@link #parseClaims(String)}
+     * @return the token version, or an empty Optional if the token does not carry one
      */
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public Optional<Integer> getTokenVersion(Claims claims) {
+        return Optional.ofNullable(claims.get(TOKEN_VERSION_CLAIM, Integer.class));
     }
-}
-
 
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("security.jwt.validation")
+                .description("Time to verify a JWT's signature and read its claims")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
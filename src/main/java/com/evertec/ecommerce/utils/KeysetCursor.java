@@ -0,0 +1,53 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination over (createdAt, id).
+ * The sort direction is embedded so a cursor cannot be replayed against a different ordering.
+ */
+public record KeysetCursor(SortDirection direction, LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor as a URL-safe Base64 string.
+     *
+     * @return the opaque token to hand back to the client
+     */
+    public String encode() {
+        String raw = direction + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the opaque token received from the client
+     * @param expectedDirection the sort direction of the current request
+     * @return the decoded cursor
+     * @throws BadRequestException if the token is malformed or was issued for another sort direction
+     */
+    public static KeysetCursor decode(String token, SortDirection expectedDirection) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            KeysetCursor cursor = new KeysetCursor(SortDirection.valueOf(parts[0]), LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+            if (cursor.direction() != expectedDirection) {
+                throw new BadRequestException("Cursor was issued for sort " + cursor.direction());
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.evertec.ecommerce.utils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds a production-sized dataset for load testing when the {@code loadtest} profile is active.
+ * Rows are written with JDBC batch inserts instead of through the persistence context, so seeding
+ * millions of rows neither grows the first-level cache nor pays for entity lifecycle callbacks.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestDataSeeder implements CommandLineRunner {
+
+    public static final String EMAIL_FORMAT = "user%d@loadtest.local";
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final long HISTORY_SECONDS = 365L * 24 * 60 * 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BCryptPasswordEncoder passwordEncoder;
+
+    @Value("${loadtest.seed.users:1000}")
+    private int users;
+    @Value("${loadtest.seed.products:10000}")
+    private int products;
+    @Value("${loadtest.seed.orders:50000}")
+    private int orders;
+    @Value("${loadtest.seed.stock-per-product:1000000}")
+    private int stockPerProduct;
+    @Value("${inventory.stock-shards:8}")
+    private int stockShards;
+    @Value("${loadtest.seed.lines-per-order:3}")
+    private int linesPerOrder;
+    @Value("${loadtest.seed.password:LoadTest123}")
+    private String password;
+    @Value("${loadtest.seed.batch-size:1000}")
+    private int batchSize;
+    @Value("${loadtest.seed.random-seed:42}")
+    private long randomSeed;
+
+    /**
+     * Inserts the configured number of users, products with their stock, and orders with their
+     * lines, unless the dataset has already been seeded. The seeded lines are not taken from the
+     * stock. All users share the same password, which is hashed once.
+     *
+     * @param args command line arguments passed to the execution context; not used in this implementation
+     */
+    @Override
+    public void run(String... args) {
+        Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_users WHERE email = ?", Integer.class, EMAIL_FORMAT.formatted(0));
+        if (seeded != null && seeded > 0) {
+            log.info("Load test dataset already present, skipping seeding");
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now();
+        String passwordHash = passwordEncoder.encode(password);
+
+        List<UUID> userIds = new ArrayList<>(users);
+        insertInBatches("INSERT INTO app_users (id, email, password, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", users, i -> {
+            UUID id = UuidV7Generator.nextUuid();
+            userIds.add(id);
+            Timestamp createdAt = Timestamp.valueOf(now);
+            return new Object[]{id, EMAIL_FORMAT.formatted(i), passwordHash, createdAt, createdAt};
+        });
+
+        List<UUID> productIds = new ArrayList<>(products);
+        List<BigDecimal> productPrices = new ArrayList<>(products);
+        insertInBatches("INSERT INTO product (id, name, description, price, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", products, i -> {
+            UUID id = UuidV7Generator.nextUuid();
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(200_000), 2);
+            productIds.add(id);
+            productPrices.add(price);
+            Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_SECONDS)));
+            return new Object[]{id, "Product " + i, "Load test product " + i, price, createdAt, createdAt};
+        });
+
+        insertInBatches("INSERT INTO product_stock_shard (id, product_id, shard, quantity) VALUES (?, ?, ?, ?)",
+                products * stockShards, i -> {
+                    int shard = i % stockShards;
+                    int quantity = stockPerProduct / stockShards + (shard < stockPerProduct % stockShards ? 1 : 0);
+                    return new Object[]{UuidV7Generator.nextUuid(), productIds.get(i / stockShards), shard, quantity};
+                });
+
+        // Lines are drawn before their orders are inserted so each order row carries the total of its lines
+        // Orders start at version 0, as if saved through JPA, so optimistic locking works on seeded rows
+        int[] lineProducts = new int[orders * linesPerOrder];
+        int[] lineQuantities = new int[orders * linesPerOrder];
+        List<UUID> orderIds = new ArrayList<>(orders);
+        List<Timestamp> orderCreatedAts = new ArrayList<>(orders);
+        insertInBatches("INSERT INTO orders (id, order_status, total, user_id, version, created_at, updated_at) VALUES (?, ?, ?, ?, 0, ?, ?)", orders, i -> {
+            UUID id = UuidV7Generator.nextUuid();
+            Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_SECONDS)));
+            BigDecimal total = BigDecimal.ZERO;
+            for (int line = i * linesPerOrder; line < (i + 1) * linesPerOrder; line++) {
+                lineProducts[line] = random.nextInt(productIds.size());
+                lineQuantities[line] = 1 + random.nextInt(5);
+                total = total.add(productPrices.get(lineProducts[line]).multiply(BigDecimal.valueOf(lineQuantities[line])));
+            }
+            orderIds.add(id);
+            orderCreatedAts.add(createdAt);
+            return new Object[]{id, ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)].name(), total,
+                    userIds.get(random.nextInt(userIds.size())), createdAt, createdAt};
+        });
+
+        insertInBatches("INSERT INTO order_detail (id, quantity, unit_price, product_id, order_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                orders * linesPerOrder, i -> {
+                    int order = i / linesPerOrder;
+                    Timestamp createdAt = orderCreatedAts.get(order);
+                    return new Object[]{UuidV7Generator.nextUuid(), lineQuantities[i], productPrices.get(lineProducts[i]),
+                            productIds.get(lineProducts[i]), orderIds.get(order), createdAt, createdAt};
+                });
+
+        log.info("Seeded {} users, {} products, {} orders and {} order lines in {} ms", users, products, orders,
+                (long) orders * linesPerOrder, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void insertInBatches(String sql, int rows, RowFactory rowFactory) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < rows; i++) {
+            batch.add(rowFactory.row(i));
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(int index);
+    }
+}
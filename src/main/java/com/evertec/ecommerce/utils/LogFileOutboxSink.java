@@ -0,0 +1,62 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends each event as one JSON line to {@code outbox.sink.log-file.path}. A batch is written with
+ * a single append and forced to disk before it is reported as delivered.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "log-file", matchIfMissing = true)
+public class LogFileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public LogFileOutboxSink(ObjectMapper objectMapper,
+                             @Value("${outbox.sink.log-file.path:logs/outbox-events.log}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+        for (OutboxEvent event : events) {
+            objectMapper.writeValue(lines, new Line(event.getId(), event.getAggregateId(), event.getEventType(),
+                    event.getCreatedAt(), event.getPayload()));
+            lines.write('\n');
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private record Line(UUID id, UUID aggregateId, OrderEventType eventType, LocalDateTime createdAt,
+                        @JsonRawValue String payload) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.evertec.ecommerce.utils;
+
+public enum OrderEventType {
+
+    ORDER_CREATED,
+    ORDER_COMPLETED,
+    ORDER_CANCELLED;
+
+    /**
+     * Returns the event announcing that an order reached the given status.
+     *
+     * @param status the status the order moved to
+     * @return the matching event type
+     */
+    public static OrderEventType forStatus(OrderStatus status) {
+        return switch (status) {
+            case PENDING -> ORDER_CREATED;
+            case COMPLETED -> ORDER_COMPLETED;
+            case CANCELLED -> ORDER_CANCELLED;
+        };
+    }
+}
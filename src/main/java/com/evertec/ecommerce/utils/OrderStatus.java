@@ -5,4 +5,15 @@ public enum OrderStatus {
     PENDING,
     COMPLETED,
     CANCELLED;
+
+    /**
+     * Tells whether an order in this status may move to the given status. Only pending orders can
+     * change, and only to COMPLETED or CANCELLED; COMPLETED and CANCELLED are final.
+     *
+     * @param target the requested status
+     * @return true if the transition is allowed, false otherwise
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return this == PENDING && (target == COMPLETED || target == CANCELLED);
+    }
 }
@@ -0,0 +1,134 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.OutboxEvent;
+import com.evertec.ecommerce.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to the configured {@link OutboxSink}. Every poll delivers unpublished
+ * events in batches of {@code outbox.dispatcher.batch-size}, oldest first, until a batch comes back
+ * short. A batch is delivered before it is marked as published, in a transaction of its own, so
+ * delivery is at-least-once: a failure of the sink or of the process between the two steps makes
+ * the same batch be delivered again, while nothing is ever marked without being delivered.
+ *
+ * <p>The dispatcher assumes it is the only one draining the table; several instances would each
+ * deliver the same events.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.dispatcher.enabled", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer dispatchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxSink outboxSink,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.dispatcher.batch-size:100}") int batchSize,
+                            @Value("${outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.published = Counter.builder("outbox.events.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.dispatch.failures")
+                .description("Outbox batches the sink failed to deliver")
+                .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("outbox.dispatch")
+                .description("Time to deliver one outbox batch and mark it as published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet delivered, as of the last poll")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event, as of the last poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delivers every pending event, batch by batch, and refreshes the pending and lag gauges. Stops
+     * at the first failed batch; it is retried on the next poll.
+     */
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval:1s}")
+    public void dispatch() {
+        try {
+            while (dispatchBatch() == batchSize) {
+                // A full batch means more events may be waiting
+            }
+        } finally {
+            refreshLag();
+        }
+    }
+
+    /**
+     * Removes published events older than {@code outbox.retention}.
+     */
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:1h}")
+    public void purgePublished() {
+        LocalDateTime publishedBefore = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(publishedBefore));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} published outbox events", deleted);
+        }
+    }
+
+    int dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            outboxSink.publish(events);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.warn("Could not deliver {} outbox events, retrying on the next poll", events.size(), e);
+            return -1;
+        }
+        LocalDateTime publishedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), publishedAt));
+        sample.stop(dispatchTimer);
+        published.increment(events.size());
+        return events.size();
+    }
+
+    private void refreshLag() {
+        pending.set(outboxEventRepository.countByPublishedAtIsNull());
+        lagMillis.set(outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Math.max(0, Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+    }
+}
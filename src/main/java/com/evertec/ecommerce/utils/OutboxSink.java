@@ -0,0 +1,23 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination the OutboxDispatcher delivers order events to. The active sink is chosen with the
+ * {@code outbox.sink} property.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events, oldest first. The batch is marked as published only if this
+     * method returns normally; if it throws, the same events are offered again on the next poll,
+     * so a sink may see an event more than once and must tolerate duplicates (by event id).
+     *
+     * @param events the events to deliver
+     * @throws IOException if the events could not be delivered
+     */
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,108 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt work on a dedicated, bounded pool of platform threads. Request threads wait for the
+ * result, but at most {@code threads} hashes run at once, so a login storm cannot occupy every CPU
+ * and starve other requests; once {@code queue-capacity} hashes are waiting, further attempts are
+ * rejected with {@link TooManyRequestsException} instead of queueing without bound.
+ *
+ * <p>The pool is published to Micrometer as the {@code passwordHasher} executor: {@code executor.queued}
+ * is the queue depth, {@code executor} the hash latency and {@code executor.idle} the time spent
+ * queued. Rejected tasks are counted by {@code password.hasher.rejected}, and the BCrypt work alone
+ * is timed by {@code security.bcrypt}, tagged with the operation.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final Counter rejected;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHasher(BCryptPasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.password-hasher.threads:0}") int threads,
+                          @Value("${security.password-hasher.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hasher-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "passwordHasher");
+        this.rejected = meterRegistry.counter("password.hasher.rejected");
+        this.encodeTimer = bcryptTimer(meterRegistry, "encode");
+        this.matchesTimer = bcryptTimer(meterRegistry, "matches");
+    }
+
+    /**
+     * Hashes a raw password with BCrypt on the hashing pool.
+     *
+     * @param rawPassword the password to hash
+     * @return the BCrypt hash, including its salt and cost
+     * @throws TooManyRequestsException if the hashing pool and its queue are full
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Verifies a raw password against a stored BCrypt hash on the hashing pool.
+     *
+     * @param rawPassword the password supplied by the user
+     * @param encodedPassword the stored BCrypt hash
+     * @return true if the password matches the hash, false otherwise
+     * @throws TooManyRequestsException if the hashing pool and its queue are full
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Timer bcryptTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("security.bcrypt")
+                .description("Time spent in BCrypt, excluding the wait for a hashing thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many concurrent password hashing requests, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class ProductCache {
+
+    private final AsyncLoadingCache<UUID, Optional<Product>> cache;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProductCache(ProductRepository productRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${products.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${products.cache.ttl:5m}") Duration ttl,
+                        @Value("${products.cache.negative-ttl:5s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                // Loads run outside the cache's map lock on their own virtual thread, so callers waiting
+                // on a load only park on a future and never pin their carrier thread while holding a monitor
+                .executor(loadExecutor)
+                .buildAsync(productRepository::findById);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Returns the product with the given id, loading it from the repository on a miss.
+     * Concurrent misses for the same id share a single database lookup, and missing ids are
+     * remembered for a short time so repeated 404s do not reach the database.
+     *
+     * @param productId the unique identifier of the product
+     * @return the product, or an empty Optional if it does not exist
+     */
+    public Optional<Product> get(UUID productId) {
+        try {
+            return cache.get(productId).join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's own exception so callers and GlobalExceptionHandler see its type
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evicts the given product so the next read reloads it. Every path that creates or modifies a
+     * product must evict it, within a transaction through {@link #invalidateAfterCommit(UUID)}.
+     *
+     * @param productId the unique identifier of the product to evict
+     */
+    public void invalidate(UUID productId) {
+        cache.synchronous().invalidate(productId);
+    }
+
+    /**
+     * Evicts the given product once the current transaction commits. Evicting before the commit
+     * would let a concurrent read reload the old state, or cache the product as missing, until the
+     * entry expires. Outside a transaction the product is evicted immediately.
+     *
+     * @param productId the unique identifier of the product to evict
+     */
+    public void invalidateAfterCommit(UUID productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(productId);
+            }
+        });
+    }
+
+    /**
+     * Waits for loads in flight to finish and stops the load executor when the context closes.
+     */
+    @PreDestroy
+    public void close() {
+        loadExecutor.close();
+    }
+
+    private record PresenceExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<UUID, Optional<Product>> {
+
+        @Override
+        public long expireAfterCreate(UUID key, Optional<Product> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Optional<Product> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Optional<Product> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.Product;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name and description of every product, answering free-text
+ * searches without touching the database.
+ *
+ * <p>Text is lower-cased, stripped of accents and split on anything that is not a letter or a
+ * digit. A product matches a query when it contains every query token, either as a whole term or,
+ * for tokens of at least {@value #MIN_PREFIX_LENGTH} characters, as the prefix of a term, so
+ * {@code "lapt gam"} finds "Gaming laptop". Every term starting with the token is considered,
+ * however many there are, so the reported total counts every matching product. Matches are ranked by TF-IDF, with terms in the name
+ * weighing {@value #NAME_BOOST} times more than terms in the description and prefix matches half
+ * as much as whole-term matches.
+ *
+ * <p>Products are numbered in the order they are added and every term keeps the numbers of the
+ * products containing it in ascending order. A search starts from the token with the fewest
+ * candidates and checks the remaining tokens only for those candidates, galloping forward through
+ * their posting lists, and keeps the best hits in a bounded heap.
+ * Writers are serialized by a lock and count a product as searchable only once all of its terms
+ * have been appended. Readers take no lock: a search reads that count first and ignores postings
+ * of higher-numbered products, so it runs concurrently with additions and sees each product either
+ * fully indexed or not at all. Products are never removed, since the catalog has no delete.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final float NAME_BOOST = 3f;
+    static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Documents documents = new Documents(new long[1024], new long[1024], 0);
+    // Products numbered below this have all their terms in the posting lists; never above documents.size()
+    private volatile int searchable;
+    // Open-addressing table of document number + 1 by product id, so adding a product twice is a no-op; guarded by writeLock
+    private int[] slots = new int[2048];
+
+    /**
+     * Adds a product to the index. Adding a product that is already indexed has no effect.
+     *
+     * @param product the product to index
+     */
+    public void add(Product product) {
+        addAll(List.of(analyze(product)));
+    }
+
+    /**
+     * Adds a product once the current transaction commits, so a product whose creation is rolled
+     * back never becomes searchable. Outside a transaction the product is added immediately.
+     *
+     * @param product the product to index
+     */
+    public void addAfterCommit(Product product) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(product);
+            return;
+        }
+        Document document = analyze(product);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addAll(List.of(document));
+            }
+        });
+    }
+
+    /**
+     * Adds already analyzed products in one critical section. Analysis is the expensive part of
+     * indexing and is thread-safe, so bulk loaders run {@link #analyze(Product)} in parallel and
+     * hand the results here.
+     *
+     * @param batch the analyzed products, in the order they should be numbered
+     */
+    public void addAll(Collection<Document> batch) {
+        writeLock.lock();
+        try {
+            for (Document document : batch) {
+                if (numberOf(document.productId()) >= 0) {
+                    continue;
+                }
+                int number = appendDocument(document.productId());
+                document.termWeights().forEach((term, weight) ->
+                        terms.computeIfAbsent(term, t -> new Postings()).append(number, weight));
+                searchable = number + 1;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Splits a product into weighted terms. Has no side effects and may run on any thread.
+     *
+     * @param product the product to analyze
+     * @return the product's id and the weight of each of its terms
+     */
+    public static Document analyze(Product product) {
+        Map<String, Float> termWeights = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            termWeights.merge(token, NAME_BOOST, Float::sum);
+        }
+        for (String token : tokenize(product.getDescription())) {
+            termWeights.merge(token, 1f, Float::sum);
+        }
+        return new Document(product.getId(), termWeights);
+    }
+
+    /**
+     * Finds the products matching every token of the query, best first.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of hits to return
+     * @return the number of matching products and the best {@code limit} of them
+     */
+    public SearchResult search(String query, int limit) {
+        int documentCount = searchable;
+        // Read after the count, so it holds the id of every product below it
+        Documents documentsSnapshot = documents;
+        List<TokenMatches> tokens = new ArrayList<>();
+        for (String token : new LinkedHashSet<>(tokenize(query))) {
+            TokenMatches matches = match(token, documentCount);
+            if (matches.candidates() == 0) {
+                return SearchResult.EMPTY;
+            }
+            tokens.add(matches);
+        }
+        if (tokens.isEmpty()) {
+            return SearchResult.EMPTY;
+        }
+        tokens.sort(Comparator.comparingLong(TokenMatches::candidates));
+
+        Candidates candidates = tokens.getFirst().union();
+        for (int i = 1; i < tokens.size() && candidates.size > 0; i++) {
+            candidates.retainAndScore(tokens.get(i));
+        }
+        return new SearchResult(candidates.size, candidates.top(limit, documentsSnapshot));
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return the number of indexed products
+     */
+    public int size() {
+        return searchable;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private TokenMatches match(String token, int documentCount) {
+        List<TermMatch> matches = new ArrayList<>();
+        Postings exact = terms.get(token);
+        PostingsSnapshot exactSnapshot = exact == null ? null : exact.snapshot.truncate(documentCount);
+        if (exactSnapshot != null && exactSnapshot.size() > 0) {
+            matches.add(new TermMatch(exactSnapshot, idf(exactSnapshot.size(), documentCount)));
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Postings> entry : terms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                PostingsSnapshot snapshot = entry.getValue().snapshot.truncate(documentCount);
+                if (snapshot.size() > 0) {
+                    matches.add(new TermMatch(snapshot, idf(snapshot.size(), documentCount) * PREFIX_MATCH_WEIGHT));
+                }
+            }
+        }
+        return new TokenMatches(matches);
+    }
+
+    private static float idf(int documentFrequency, int documentCount) {
+        return (float) Math.log(1 + (double) documentCount / Math.max(documentFrequency, 1));
+    }
+
+    private int numberOf(UUID productId) {
+        int mask = slots.length - 1;
+        Documents current = documents;
+        for (int slot = spread(productId) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int number = slots[slot] - 1;
+            if (current.mostSignificantBits()[number] == productId.getMostSignificantBits()
+                    && current.leastSignificantBits()[number] == productId.getLeastSignificantBits()) {
+                return number;
+            }
+        }
+        return -1;
+    }
+
+    private int appendDocument(UUID productId) {
+        Documents current = documents;
+        int number = current.size();
+        long[] mostSignificantBits = current.mostSignificantBits();
+        long[] leastSignificantBits = current.leastSignificantBits();
+        if (number == mostSignificantBits.length) {
+            mostSignificantBits = Arrays.copyOf(mostSignificantBits, number * 2);
+            leastSignificantBits = Arrays.copyOf(leastSignificantBits, number * 2);
+        }
+        mostSignificantBits[number] = productId.getMostSignificantBits();
+        leastSignificantBits[number] = productId.getLeastSignificantBits();
+        documents = new Documents(mostSignificantBits, leastSignificantBits, number + 1);
+
+        // Keep the table at most half full
+        if ((number + 1) * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i <= number; i++) {
+                insertSlot(new UUID(mostSignificantBits[i], leastSignificantBits[i]), i);
+            }
+        } else {
+            insertSlot(productId, number);
+        }
+        return number;
+    }
+
+    private void insertSlot(UUID productId, int number) {
+        int mask = slots.length - 1;
+        int slot = spread(productId) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = number + 1;
+    }
+
+    private static int spread(UUID productId) {
+        int hash = productId.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The terms of one product, weighted by field.
+     *
+     * @param productId the unique identifier of the product
+     * @param termWeights the weight of each term: {@value #NAME_BOOST} per occurrence in the name, 1 per occurrence in the description
+     */
+    public record Document(UUID productId, Map<String, Float> termWeights) {
+    }
+
+    /**
+     * The outcome of a search.
+     *
+     * @param total the number of products matching the query
+     * @param hits the best matches, highest score first
+     */
+    public record SearchResult(long total, List<Hit> hits) {
+
+        static final SearchResult EMPTY = new SearchResult(0, List.of());
+    }
+
+    /**
+     * A product matching a search.
+     *
+     * @param productId the unique identifier of the product
+     * @param score the relevance of the product for the query
+     */
+    public record Hit(UUID productId, float score) {
+    }
+
+    private record Documents(long[] mostSignificantBits, long[] leastSignificantBits, int size) {
+    }
+
+    private record PostingsSnapshot(int[] documents, float[] weights, int size) {
+
+        /**
+         * Returns the view of this snapshot restricted to the products numbered below the given
+         * count, which the search can resolve and which are fully indexed.
+         */
+        PostingsSnapshot truncate(int documentCount) {
+            if (size == 0 || documents[size - 1] < documentCount) {
+                return this;
+            }
+            int index = Arrays.binarySearch(documents, 0, size, documentCount);
+            return new PostingsSnapshot(documents, weights, index >= 0 ? index : -index - 1);
+        }
+    }
+
+    private record TermMatch(PostingsSnapshot postings, float factor) {
+    }
+
+    /**
+     * Posting list of one term. Only the writer appends, into spare capacity or a grown copy, and
+     * then publishes a new snapshot; entries below a published size are never written again, so
+     * readers can use any snapshot they have read without locking.
+     */
+    private static final class Postings {
+
+        private volatile PostingsSnapshot snapshot = new PostingsSnapshot(new int[2], new float[2], 0);
+
+        void append(int document, float weight) {
+            PostingsSnapshot current = snapshot;
+            int[] documents = current.documents();
+            float[] weights = current.weights();
+            if (current.size() == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            documents[current.size()] = document;
+            weights[current.size()] = weight;
+            snapshot = new PostingsSnapshot(documents, weights, current.size() + 1);
+        }
+    }
+
+    /**
+     * The terms one query token matches: the token itself and the terms it is a prefix of.
+     */
+    private record TokenMatches(List<TermMatch> terms) {
+
+        long candidates() {
+            long candidates = 0;
+            for (TermMatch term : terms) {
+                candidates += term.postings().size();
+            }
+            return candidates;
+        }
+
+        /**
+         * Merges the posting lists of all matched terms into one list ordered by document. A product
+         * matching several terms of the token keeps its best score. Lists are merged pairwise, round
+         * after round, so a short prefix expanding to thousands of terms costs a logarithmic number
+         * of passes over its postings rather than one pass per term.
+         */
+        Candidates union() {
+            List<Candidates> round = new ArrayList<>(terms.size());
+            for (TermMatch term : terms) {
+                PostingsSnapshot postings = term.postings();
+                int[] documents = Arrays.copyOf(postings.documents(), postings.size());
+                float[] scores = new float[postings.size()];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = postings.weights()[i] * term.factor();
+                }
+                round.add(new Candidates(documents, scores, documents.length));
+            }
+            while (round.size() > 1) {
+                List<Candidates> next = new ArrayList<>((round.size() + 1) / 2);
+                for (int i = 0; i < round.size(); i += 2) {
+                    next.add(i + 1 < round.size() ? round.get(i).merge(round.get(i + 1)) : round.get(i));
+                }
+                round = next;
+            }
+            return round.getFirst();
+        }
+    }
+
+    /**
+     * Documents still matching the query, ordered by number, with their accumulated scores.
+     */
+    private static final class Candidates {
+
+        private final int[] documents;
+        private final float[] scores;
+        private int size;
+
+        Candidates(int[] documents, float[] scores, int size) {
+            this.documents = documents;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        Candidates merge(Candidates other) {
+            int[] mergedDocuments = new int[size + other.size];
+            float[] mergedScores = new float[size + other.size];
+            int i = 0;
+            int j = 0;
+            int merged = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && documents[i] < other.documents[j])) {
+                    mergedDocuments[merged] = documents[i];
+                    mergedScores[merged++] = scores[i++];
+                } else if (i == size || other.documents[j] < documents[i]) {
+                    mergedDocuments[merged] = other.documents[j];
+                    mergedScores[merged++] = other.scores[j++];
+                } else {
+                    mergedDocuments[merged] = documents[i];
+                    mergedScores[merged++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return new Candidates(mergedDocuments, mergedScores, merged);
+        }
+
+        /**
+         * Keeps the candidates matching the token and adds their score for it. Each matched term is
+         * walked once alongside the candidates, galloping forward past the documents in between; a
+         * candidate matching several terms of the token keeps its best score.
+         */
+        void retainAndScore(TokenMatches token) {
+            float[] tokenScores = new float[size];
+            Arrays.fill(tokenScores, -1);
+            for (TermMatch term : token.terms()) {
+                int[] termDocuments = term.postings().documents();
+                float[] termWeights = term.postings().weights();
+                int termSize = term.postings().size();
+                float factor = term.factor();
+                int position = 0;
+                for (int i = 0; i < size && position < termSize; i++) {
+                    position = advance(termDocuments, termSize, position, documents[i]);
+                    if (position < termSize && termDocuments[position] == documents[i]) {
+                        tokenScores[i] = Math.max(tokenScores[i], termWeights[position] * factor);
+                    }
+                }
+            }
+            int retained = 0;
+            for (int i = 0; i < size; i++) {
+                if (tokenScores[i] >= 0) {
+                    documents[retained] = documents[i];
+                    scores[retained++] = scores[i] + tokenScores[i];
+                }
+            }
+            size = retained;
+        }
+
+        /**
+         * Returns the first index at or after {@code from} of a posting list whose document is not below the given one.
+         */
+        private static int advance(int[] postings, int size, int from, int document) {
+            // Lists of similar density usually need a step or two; skip the binary search then
+            for (int limit = Math.min(from + 4, size); from < limit; from++) {
+                if (postings[from] >= document) {
+                    return from;
+                }
+            }
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && postings[high] < document) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(postings, low, Math.min(high, size), document);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        List<Hit> top(int limit, Documents documentsSnapshot) {
+            // Min-heap of candidate indexes holding the best ones seen so far, worst at the root
+            int[] heap = new int[Math.max(0, Math.min(limit, size))];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < heap.length) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (heapSize > 0 && ranksAbove(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Hit[] hits = new Hit[heapSize];
+            while (heapSize > 0) {
+                int index = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+                int document = documents[index];
+                hits[heapSize] = new Hit(new UUID(documentsSnapshot.mostSignificantBits()[document],
+                        documentsSnapshot.leastSignificantBits()[document]), scores[index]);
+            }
+            return List.of(hits);
+        }
+
+        /**
+         * Orders candidates by score; on equal scores older products rank first.
+         */
+        private boolean ranksAbove(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : documents[a] < documents[b];
+        }
+
+        private void siftUp(int[] heap, int position) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!ranksAbove(heap[parent], heap[position])) {
+                    return;
+                }
+                swap(heap, parent, position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int position = 0;
+            while (true) {
+                int worst = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+                if (left < heapSize && ranksAbove(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && ranksAbove(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == position) {
+                    return;
+                }
+                swap(heap, position, worst);
+                position = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int swapped = heap[i];
+            heap[i] = heap[j];
+            heap[j] = swapped;
+        }
+    }
+}
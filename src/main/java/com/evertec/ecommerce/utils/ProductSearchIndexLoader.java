@@ -0,0 +1,74 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Fills the {@link ProductSearchIndex} with the whole catalog once the application is ready, after
+ * the data seeders have run. Products are read through the same forward-only cursor as the catalog
+ * export, in batches of {@code products.search.rebuild-batch-size}; each batch is analyzed in
+ * parallel and then added to the index in one step, and detached so the heap holds a single batch
+ * of entities at a time. Products created while the rebuild runs are indexed by
+ * {@code createProduct} as well, which is harmless since adding a product twice has no effect.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "products.search.rebuild-on-startup", matchIfMissing = true)
+public class ProductSearchIndexLoader {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ProductSearchIndexLoader(ProductRepository productRepository,
+                                    ProductSearchIndex productSearchIndex,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${products.search.rebuild-batch-size:5000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Indexes every product in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                Iterator<Product> iterator = products.iterator();
+                List<Product> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == batchSize || !iterator.hasNext()) {
+                        productSearchIndex.addAll(batch.parallelStream().map(ProductSearchIndex::analyze).toList());
+                        batch.clear();
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        log.info("Indexed {} products for search in {} ms", productSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,167 @@
+package com.evertec.ecommerce.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which SQL statements are worth logging and logs them off the request thread. A statement
+ * is recorded when its execution takes at least {@code sql.inspection.slow-threshold}, or otherwise
+ * with probability {@code sql.inspection.sample-rate}. Everything else costs a clock read and a
+ * comparison.
+ *
+ * <p>Entries are written by a single background thread; once {@code sql.inspection.queue-capacity}
+ * entries are waiting, further ones are dropped and counted by {@code sql.inspection.dropped}
+ * rather than slowing queries down. Bind parameter values are never captured, only their number,
+ * and string literals in the SQL text are masked.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sql.inspection.enabled", matchIfMissing = true)
+public class SlowQueryLog {
+
+    private static final String APPLICATION_PACKAGE = "com.evertec.ecommerce.";
+    private static final String REPOSITORIES_PACKAGE = APPLICATION_PACKAGE + "repositories.";
+    private static final String SERVICES_PACKAGE = APPLICATION_PACKAGE + "serviceImpl.";
+    private static final String INSPECTING_DATA_SOURCE = APPLICATION_PACKAGE + "config.InspectingDataSource";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final ExecutorService executor;
+    private final Counter slow;
+    private final Counter sampled;
+    private final Counter dropped;
+
+    public SlowQueryLog(MeterRegistry meterRegistry,
+                        @Value("${sql.inspection.slow-threshold:100ms}") Duration slowThreshold,
+                        @Value("${sql.inspection.sample-rate:0}") double sampleRate,
+                        @Value("${sql.inspection.queue-capacity:1000}") int queueCapacity) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("slow-query-log").daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.slow = meterRegistry.counter("sql.inspection.recorded", "reason", "slow");
+        this.sampled = meterRegistry.counter("sql.inspection.recorded", "reason", "sampled");
+        this.dropped = meterRegistry.counter("sql.inspection.dropped");
+    }
+
+    /**
+     * Tells whether a statement that took the given time should be recorded.
+     *
+     * @param elapsedNanos the execution time of the statement
+     * @return true if the statement is slow or was picked by sampling
+     */
+    public boolean shouldRecord(long elapsedNanos) {
+        return isSlow(elapsedNanos) || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Names the service method that issued the current statement, or if no service is on the
+     * stack, the innermost application method outside the repositories. Statements flushed at
+     * commit are attributed through the service's transactional proxy, whose frame is still on the
+     * stack. Walks the calling thread's stack, so it is only meant for statements that will be
+     * recorded.
+     *
+     * @return the origin as {@code Class.method}, or {@code unknown} if no application code is on the stack
+     */
+    public String origin() {
+        return STACK_WALKER.walk(frames -> {
+            StackWalker.StackFrame fallback = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.startsWith(SERVICES_PACKAGE)) {
+                    return describe(frame);
+                }
+                if (fallback == null && className.startsWith(APPLICATION_PACKAGE)
+                        && !className.startsWith(REPOSITORIES_PACKAGE)
+                        && !className.startsWith(INSPECTING_DATA_SOURCE)
+                        && !className.equals(SlowQueryLog.class.getName())) {
+                    fallback = frame;
+                }
+            }
+            return fallback != null ? describe(fallback) : "unknown";
+        });
+    }
+
+    /**
+     * Queues a statement for logging. Never blocks; the entry is dropped if the queue is full.
+     *
+     * @param entry the statement to log
+     */
+    public void record(Entry entry) {
+        boolean isSlow = isSlow(entry.elapsedNanos());
+        (isSlow ? slow : sampled).increment();
+        try {
+            executor.execute(() -> write(entry, isSlow));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    static String redact(String sql) {
+        return STRING_LITERAL.matcher(sql).replaceAll("'?'");
+    }
+
+    // OrderServiceImpl$$SpringCGLIB$$0.lambda$transition$0 becomes OrderServiceImpl.transition
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int proxySuffix = simpleName.indexOf("$$");
+        if (proxySuffix >= 0) {
+            simpleName = simpleName.substring(0, proxySuffix);
+        }
+        String methodName = frame.getMethodName();
+        if (methodName.startsWith("lambda$")) {
+            methodName = methodName.substring("lambda$".length(), methodName.lastIndexOf('$'));
+        }
+        return simpleName + "." + methodName;
+    }
+
+    private boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= slowThresholdNanos;
+    }
+
+    private static void write(Entry entry, boolean isSlow) {
+        log.info("{} query: {} ms, {} rows, {} parameters, from {}: {}",
+                isSlow ? "Slow" : "Sampled",
+                String.format("%.3f", entry.elapsedNanos() / 1e6),
+                entry.rows() < 0 ? "?" : entry.rows(),
+                entry.parameters(),
+                entry.origin(),
+                redact(entry.sql()));
+    }
+
+    /**
+     * A recorded statement.
+     *
+     * @param sql the SQL text, with {@code ?} placeholders for bind parameters
+     * @param elapsedNanos the time until the statement returned its first result
+     * @param rows rows returned by a query or affected by an update, or -1 if unknown
+     * @param parameters the number of bind parameters set; their values are not kept
+     * @param origin the application method that issued the statement
+     */
+    public record Entry(String sql, long elapsedNanos, long rows, int parameters, String origin) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.evertec.ecommerce.utils;
+
+public enum SortDirection {
+
+    ASC,
+    DESC;
+}
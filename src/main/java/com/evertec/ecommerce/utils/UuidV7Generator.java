@@ -0,0 +1,57 @@
+package com.evertec.ecommerce.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate identifier generator producing RFC 9562 version 7 UUIDs: a 48-bit Unix epoch
+ * millisecond timestamp, followed by a 12-bit sequence and 62 random bits.
+ * <p>
+ * The timestamp and sequence are kept in one atomic counter so identifiers generated by this
+ * JVM are strictly increasing, even within the same millisecond or if the clock steps back.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RANDOM_62_BITS = 0x3FFFFFFFFFFFFFFFL;
+
+    // (unix millis << 12) | sequence of the last generated identifier
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return nextUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Generates a new time-ordered version 7 UUID.
+     *
+     * @return a UUID greater than any previously generated by this JVM
+     */
+    public static UUID nextUuid() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        // Sequence overflow carries into the timestamp, keeping identifiers monotonic
+        long timestampAndSequence = LAST_TIMESTAMP_AND_SEQUENCE.updateAndGet(last -> Math.max(last + 1, now));
+
+        long timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+
+        long mostSignificantBits = (timestamp << 16) | VERSION_7 | sequence;
+        long leastSignificantBits = VARIANT_RFC_4122 | (ThreadLocalRandom.current().nextLong() & RANDOM_62_BITS);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,38 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.annotations.EnumValidator;
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
+import com.evertec.ecommerce.utils.EnumValidatorImpl;
+import com.evertec.ecommerce.utils.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EnumValidatorImpl#isValid} as configured on {@link OrderUpdateStatusDTO#getStatus()},
+ * which runs on every order status update request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumValidatorBenchmark {
+
+    private EnumValidatorImpl validator;
+
+    @Param({"PENDING", "CANCELLED"})
+    public OrderStatus status;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator = new EnumValidatorImpl();
+        validator.initialize(OrderUpdateStatusDTO.class.getDeclaredField("status").getAnnotation(EnumValidator.class));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(status, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
+import com.evertec.ecommerce.exceptions.GlobalExceptionHandler;
+import com.evertec.ecommerce.exceptions.NotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link GlobalExceptionHandler} builds error responses. The {@code throwAndHandle}
+ * benchmark includes constructing the exception, which fills in its stack trace, to show the full
+ * cost of the error path a service call takes on an unknown id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private NotFoundException notFoundException;
+    private MethodArgumentNotValidException validationException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        notFoundException = new NotFoundException("Order not found with id: 0190b7f4-8e3a-7c1b-9d6e-1f2a3b4c5d6e");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new OrderUpdateStatusDTO(), "orderUpdateStatusDTO");
+        bindingResult.addError(new FieldError("orderUpdateStatusDTO", "orderId", "must not be blank"));
+        bindingResult.addError(new FieldError("orderUpdateStatusDTO", "status", "Invalid value. Must be one of the specified Enum values."));
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("updateOrderStatus", OrderUpdateStatusDTO.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> handleNotFound() {
+        return handler.handleNotFoundException(notFoundException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> throwAndHandleNotFound() {
+        try {
+            throw new NotFoundException("Order not found with id: 0190b7f4-8e3a-7c1b-9d6e-1f2a3b4c5d6e");
+        } catch (NotFoundException e) {
+            return handler.handleNotFoundException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handleValidation() {
+        return handler.handleValidationExceptions(validationException);
+    }
+
+    @SuppressWarnings("unused")
+    private void updateOrderStatus(OrderUpdateStatusDTO orderUpdateStatusDTO) {
+        // Target method for the MethodParameter of the validation exception
+    }
+}
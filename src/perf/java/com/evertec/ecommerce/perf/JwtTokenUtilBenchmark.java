@@ -0,0 +1,88 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.utils.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JWT hot paths of {@link JwtTokenUtil}: issuing a token at login and verifying one on
+ * every authenticated request. Also compares the original verification path, which built a new
+ * parser and verified the signature twice (once to validate, once to read the subject), against
+ * the single-pass verification with a parser built once that {@link JwtTokenUtil#parseClaims} uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private Key key;
+    private String token;
+    private JwtParser sharedParser;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String utilToken;
+
+    @Setup
+    public void setUp() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        token = Jwts.builder()
+                .setSubject("bench@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtTokenUtil = new JwtTokenUtil(new SimpleMeterRegistry());
+        utilToken = jwtTokenUtil.generateToken("bench@example.com", 0);
+    }
+
+    @Benchmark
+    public void legacyValidateThenExtract(Blackhole blackhole) {
+        boolean valid;
+        try {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            valid = true;
+        } catch (RuntimeException e) {
+            valid = false;
+        }
+        blackhole.consume(valid);
+        if (valid) {
+            blackhole.consume(Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody()
+                    .getSubject());
+        }
+    }
+
+    @Benchmark
+    public String singlePassSharedParser() {
+        return sharedParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Optional<Claims> jwtTokenUtilParseClaims() {
+        return jwtTokenUtil.parseClaims(utilToken);
+    }
+
+    @Benchmark
+    public String jwtTokenUtilGenerateToken() {
+        return jwtTokenUtil.generateToken("bench@example.com", 0);
+    }
+}
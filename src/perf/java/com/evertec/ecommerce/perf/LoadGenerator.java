@@ -0,0 +1,268 @@
+package com.evertec.ecommerce.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator for a running instance seeded with the {@code loadtest} profile.
+ * Each client repeatedly runs the login, create order, add lines and get order flow as one of the
+ * seeded users, and the latency of every step is reported as throughput and percentiles once the
+ * warm-up period is over.
+ *
+ * <p>Options, all optional: {@code --base-url http://localhost:8080}, {@code --clients 50},
+ * {@code --users 1000}, {@code --password LoadTest123}, {@code --lines 3}, {@code --warmup 10s},
+ * {@code --duration 60s}.
+ */
+public class LoadGenerator {
+
+    private static final String EMAIL_FORMAT = "user%d@loadtest.local";
+    private static final int PRODUCT_SAMPLE_SIZE = 100;
+
+    enum Step { LOGIN, CREATE_ORDER, ADD_LINES, GET_ORDER }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int clients;
+    private final int users;
+    private final String password;
+    private final int lines;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private List<String> productIds;
+
+    LoadGenerator(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "50"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        this.password = options.getOrDefault("password", "LoadTest123");
+        this.lines = Integer.parseInt(options.getOrDefault("lines", "3"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        this.duration = parseDuration(options.getOrDefault("duration", "60s"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadGenerator(options).run();
+    }
+
+    void run() throws Exception {
+        productIds = sampleProductIds();
+        System.out.printf("Driving %s with %d clients, %s warm-up, %s measurement, %d lines per order%n",
+                baseUrl, clients, warmup, duration, lines);
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                String email = EMAIL_FORMAT.formatted(client % users);
+                futures.add(executor.submit(() -> runClient(email, measureFrom, measureUntil)));
+            }
+        }
+
+        ClientResult total = new ClientResult();
+        for (Future<ClientResult> future : futures) {
+            total.merge(future.get());
+        }
+        report(total, duration);
+    }
+
+    private ClientResult runClient(String email, long measureFrom, long measureUntil) {
+        ClientResult result = new ClientResult();
+        while (System.nanoTime() < measureUntil) {
+            boolean measured = System.nanoTime() >= measureFrom;
+            try {
+                JsonNode user = timed(result, Step.LOGIN, measured, () -> send(post("/api/v1/users/login", null,
+                        objectMapper.createObjectNode().put("email", email).put("password", password))));
+                String token = user.get("token").asText();
+                String userId = user.get("id").asText();
+
+                JsonNode order = timed(result, Step.CREATE_ORDER, measured,
+                        () -> send(post("/api/v1/orders/create/user/" + userId, token, null)));
+                String orderId = order.get("id").asText();
+
+                ObjectNode bulk = objectMapper.createObjectNode().put("orderId", orderId);
+                ArrayNode lineNodes = bulk.putArray("lines");
+                for (int i = 0; i < lines; i++) {
+                    lineNodes.addObject()
+                            .put("productId", productIds.get(ThreadLocalRandom.current().nextInt(productIds.size())))
+                            .put("quantity", 1 + ThreadLocalRandom.current().nextInt(5));
+                }
+                timed(result, Step.ADD_LINES, measured, () -> send(post("/api/v1/ordersDetails/bulk", token, bulk)));
+
+                timed(result, Step.GET_ORDER, measured, () -> send(get("/api/v1/orders/" + orderId, token)));
+                if (measured) {
+                    result.flows++;
+                }
+            } catch (StepFailedException e) {
+                // Already counted as an error of the failing step; start the next flow
+            }
+        }
+        return result;
+    }
+
+    private JsonNode timed(ClientResult result, Step step, boolean measured, Call call) throws StepFailedException {
+        long start = System.nanoTime();
+        try {
+            JsonNode body = call.execute();
+            if (measured) {
+                result.record(step, System.nanoTime() - start);
+            }
+            return body;
+        } catch (Exception e) {
+            if (measured) {
+                result.errors.merge(step, 1L, Long::sum);
+            }
+            throw new StepFailedException();
+        }
+    }
+
+    private List<String> sampleProductIds() throws IOException, InterruptedException {
+        JsonNode login = send(post("/api/v1/users/login", null,
+                objectMapper.createObjectNode().put("email", EMAIL_FORMAT.formatted(users - 1)).put("password", password)));
+        JsonNode page = send(get("/api/v1/products?size=" + PRODUCT_SAMPLE_SIZE, login.get("token").asText()));
+        List<String> ids = new ArrayList<>();
+        page.get("items").forEach(product -> ids.add(product.get("id").asText()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No products found; start the application with the loadtest profile");
+        }
+        return ids;
+    }
+
+    private HttpRequest post(String path, String token, JsonNode body) throws IOException {
+        HttpRequest.Builder builder = request(path, token).header("Content-Type", "application/json");
+        return builder.POST(body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void report(ClientResult total, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-14s %10s %8s %10s %10s %10s %10s %10s%n",
+                "step", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Step step : Step.values()) {
+            long[] latencies = total.latencies(step);
+            Arrays.sort(latencies);
+            System.out.printf("%-14s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    step, latencies.length, total.errors.getOrDefault(step, 0L), latencies.length / seconds,
+                    percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        }
+        System.out.printf("%nCompleted flows: %d (%.1f flows/s)%n", total.flows, total.flows / seconds);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        JsonNode execute() throws Exception;
+    }
+
+    private static final class StepFailedException extends Exception {
+        StepFailedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Latencies recorded by a single client. Each client owns its result, so recording needs no
+     * synchronization; results are merged once all clients have finished.
+     */
+    private static final class ClientResult {
+
+        private final Map<Step, long[]> latencies = new EnumMap<>(Step.class);
+        private final Map<Step, Integer> counts = new EnumMap<>(Step.class);
+        private final Map<Step, Long> errors = new EnumMap<>(Step.class);
+        private long flows;
+
+        void record(Step step, long nanos) {
+            long[] values = latencies.computeIfAbsent(step, s -> new long[1024]);
+            int count = counts.getOrDefault(step, 0);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(step, values);
+            }
+            values[count] = nanos;
+            counts.put(step, count + 1);
+        }
+
+        long[] latencies(Step step) {
+            return Arrays.copyOf(latencies.getOrDefault(step, new long[0]), counts.getOrDefault(step, 0));
+        }
+
+        void merge(ClientResult other) {
+            for (Step step : Step.values()) {
+                long[] mine = latencies(step);
+                long[] theirs = other.latencies(step);
+                long[] merged = Arrays.copyOf(mine, mine.length + theirs.length);
+                System.arraycopy(theirs, 0, merged, mine.length, theirs.length);
+                latencies.put(step, merged);
+                counts.put(step, merged.length);
+                errors.merge(step, other.errors.getOrDefault(step, 0L), Long::sum);
+            }
+            flows += other.flows;
+        }
+    }
+}
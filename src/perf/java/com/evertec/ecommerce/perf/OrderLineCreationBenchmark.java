@@ -0,0 +1,121 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.EcommerceApplication;
+import com.evertec.ecommerce.dto.OrderDetailBulkCreateDTO;
+import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.dto.OrderDetailLineDTO;
+import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.OrderDetailService;
+import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of adding order lines, one per call and in bulk, with the Hibernate
+ * second-level cache enabled and disabled, against the full Spring context and an in-memory H2
+ * database. Lines pick random products from a catalog small enough to fit in the products region,
+ * so with the cache on the product lookups of both paths stop reaching the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class OrderLineCreationBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int LINES_PER_BULK = 5;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderDetailService orderDetailService;
+    private UUID userId;
+    private List<UUID> productIds;
+
+    @State(Scope.Thread)
+    public static class Buyer {
+        UUID orderId;
+
+        @Setup(Level.Iteration)
+        public void createOrder(OrderLineCreationBenchmark benchmark) {
+            orderId = benchmark.orderService.createOrder(benchmark.userId).getId();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:order-line-creation-" + secondLevelCache,
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        orderDetailService = context.getBean(OrderDetailService.class);
+        userId = context.getBean(UserRepository.class)
+                .save(User.builder().email("lines@example.com").password("secret").build()).getId();
+
+        ProductService productService = context.getBean(ProductService.class);
+        productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductDTO productDTO = new ProductDTO();
+            productDTO.setName("Product " + i);
+            productDTO.setDescription("Catalog item");
+            productDTO.setPrice(BigDecimal.valueOf(10 + i));
+            productDTO.setStock(Integer.MAX_VALUE);
+            productIds.add(productService.createProduct(productDTO).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createOrderLine(Buyer buyer) {
+        OrderDetailCreateDTO orderDetailCreateDTO = new OrderDetailCreateDTO();
+        orderDetailCreateDTO.setOrderId(buyer.orderId);
+        orderDetailCreateDTO.setProductId(randomProduct());
+        orderDetailCreateDTO.setQuantity(1);
+        return orderDetailService.createOrderDetail(orderDetailCreateDTO);
+    }
+
+    @Benchmark
+    public Object createOrderLines(Buyer buyer) {
+        List<OrderDetailLineDTO> lines = new ArrayList<>(LINES_PER_BULK);
+        for (int i = 0; i < LINES_PER_BULK; i++) {
+            OrderDetailLineDTO line = new OrderDetailLineDTO();
+            line.setProductId(randomProduct());
+            line.setQuantity(1);
+            lines.add(line);
+        }
+        OrderDetailBulkCreateDTO orderDetailBulkCreateDTO = new OrderDetailBulkCreateDTO();
+        orderDetailBulkCreateDTO.setOrderId(buyer.orderId);
+        orderDetailBulkCreateDTO.setLines(lines);
+        return orderDetailService.createOrderDetails(orderDetailBulkCreateDTO);
+    }
+
+    private UUID randomProduct() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.OrderDetail;
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.utils.OrderStatus;
+import com.evertec.ecommerce.utils.UuidV7Generator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of an {@link Order} with its order details, as returned by
+ * {@code GET /api/v1/orders/{id}}. The mapper is built with the same builder and date settings
+ * Spring Boot uses for the MVC message converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private ObjectWriter writer;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writerFor(Order.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        order = Order.builder()
+                .id(UuidV7Generator.nextUuid())
+                .orderStatus(OrderStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        List<OrderDetail> orderDetails = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = Product.builder()
+                    .id(UuidV7Generator.nextUuid())
+                    .name("Product " + i)
+                    .description("Description of product " + i)
+                    .price(BigDecimal.valueOf(1050L * (i + 1), 2))
+                    .build();
+            orderDetails.add(OrderDetail.builder()
+                    .id(UuidV7Generator.nextUuid())
+                    .quantity(i + 1)
+                    .product(product)
+                    .order(order)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        order.setOrderDetails(orderDetails);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return writer.writeValueAsBytes(order);
+    }
+}
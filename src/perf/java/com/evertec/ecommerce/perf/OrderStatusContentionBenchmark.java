@@ -0,0 +1,127 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.EcommerceApplication;
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.repositories.OrderRepository;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.utils.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Measures the throughput of {@link OrderService#updateOrderStatus} when several threads race to
+ * move the same pending orders to COMPLETED or CANCELLED, against the full Spring context and an
+ * in-memory H2 database. {@code hotOrders} is the number of orders being fought over at any time:
+ * with 1, every thread targets the same row; with 64, conflicts are rare. Once an order reaches a
+ * final status its slot is refilled with a fresh pending order.
+ *
+ * <p>Each call either changes the order or finds that a concurrent call already moved it to the
+ * requested status ({@code accepted}), or is rejected with a ConflictException because the order
+ * was moved to the other final status or kept changing through every retry ({@code rejected}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class OrderStatusContentionBenchmark {
+
+    private static final int ORDERS_PER_ITERATION = 20_000;
+    private static final int INSERT_CHUNK = 1_000;
+
+    @Param({"1", "8", "64"})
+    public int hotOrders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private User user;
+
+    private AtomicReferenceArray<UUID> slots;
+    private final ConcurrentLinkedQueue<UUID> pendingOrders = new ConcurrentLinkedQueue<>();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long accepted;
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:order-status-contention",
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        user = context.getBean(UserRepository.class)
+                .save(User.builder().email("contention@example.com").password("secret").build());
+        slots = new AtomicReferenceArray<>(hotOrders);
+    }
+
+    @Setup(Level.Iteration)
+    public void createPendingOrders() {
+        pendingOrders.clear();
+        for (int created = 0; created < ORDERS_PER_ITERATION; created += INSERT_CHUNK) {
+            List<Order> chunk = new ArrayList<>(INSERT_CHUNK);
+            for (int i = 0; i < INSERT_CHUNK; i++) {
+                chunk.add(Order.builder().user(user).orderStatus(OrderStatus.PENDING).build());
+            }
+            orderRepository.saveAll(chunk).forEach(order -> pendingOrders.add(order.getId()));
+        }
+        for (int slot = 0; slot < hotOrders; slot++) {
+            slots.set(slot, nextPendingOrder());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transition(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int slot = random.nextInt(hotOrders);
+        UUID orderId = slots.get(slot);
+
+        OrderUpdateStatusDTO orderUpdateStatusDTO = new OrderUpdateStatusDTO();
+        orderUpdateStatusDTO.setOrderId(orderId);
+        orderUpdateStatusDTO.setStatus(random.nextBoolean() ? OrderStatus.COMPLETED : OrderStatus.CANCELLED);
+        try {
+            orderService.updateOrderStatus(orderUpdateStatusDTO);
+            outcomes.accepted++;
+        } catch (ConflictException e) {
+            outcomes.rejected++;
+        }
+        // The order is final now; only the first thread to notice replaces it
+        if (slots.get(slot).equals(orderId)) {
+            slots.compareAndSet(slot, orderId, nextPendingOrder());
+        }
+    }
+
+    private UUID nextPendingOrder() {
+        UUID orderId = pendingOrders.poll();
+        return orderId != null ? orderId : orderService.createOrder(user.getId()).getId();
+    }
+}
@@ -0,0 +1,79 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.utils.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ProductSearchIndex#search} over a synthetic catalog of one million products,
+ * for a rare word, a common word, two common words and a short prefix, returning the top 20.
+ * Names combine a brand, an adjective, a category and a model number; descriptions are twelve words
+ * drawn from a 5,000 word vocabulary with a skewed distribution, so some words are in most
+ * products and most words are in few.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int DESCRIPTION_WORDS = 12;
+    private static final int VOCABULARY = 5_000;
+    private static final String[] BRANDS = {"acme", "zenith", "nova", "orbit", "vertex", "lumen", "apex", "quanta"};
+    private static final String[] ADJECTIVES = {"gaming", "wireless", "compact", "premium", "portable", "smart", "classic", "ultra"};
+    private static final String[] CATEGORIES = {"laptop", "mouse", "keyboard", "monitor", "headset", "speaker", "camera", "tablet",
+            "charger", "router", "printer", "webcam", "microphone", "lamp", "chair", "desk"};
+
+    @Param({"rare", "common", "two-words", "prefix"})
+    public String query;
+
+    private ProductSearchIndex index;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        index = new ProductSearchIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        List<ProductSearchIndex.Document> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < PRODUCTS; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int word = 0; word < DESCRIPTION_WORDS; word++) {
+                // Squaring a uniform draw favours the low word numbers
+                double draw = random.nextDouble();
+                description.append("word").append((int) (draw * draw * VOCABULARY)).append(' ');
+            }
+            Product product = Product.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name(BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + CATEGORIES[random.nextInt(CATEGORIES.length)] + " m" + random.nextInt(100_000))
+                    .description(description.toString())
+                    .build();
+            batch.add(ProductSearchIndex.analyze(product));
+            if (batch.size() == 10_000) {
+                index.addAll(batch);
+                batch.clear();
+            }
+        }
+        text = switch (query) {
+            case "rare" -> "word4999";
+            case "common" -> "laptop";
+            case "two-words" -> "gaming laptop";
+            case "prefix" -> "micro";
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchResult search() {
+        return index.search(text, 20);
+    }
+}
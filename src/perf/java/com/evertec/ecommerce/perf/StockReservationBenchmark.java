@@ -0,0 +1,91 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.EcommerceApplication;
+import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.OrderDetailService;
+import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of adding order lines for a single hot product when many buyers do it
+ * at once, against the full Spring context and an in-memory H2 database. Every call reserves one
+ * unit through {@link com.evertec.ecommerce.service.InventoryService}, so with {@code shards=1}
+ * all buyers queue on the same stock row until each transaction commits; with more shards they
+ * spread over that many rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class StockReservationBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderDetailService orderDetailService;
+    private UUID userId;
+    private UUID productId;
+
+    @State(Scope.Thread)
+    public static class Buyer {
+        UUID orderId;
+
+        @Setup(Level.Trial)
+        public void createOrder(StockReservationBenchmark benchmark) {
+            orderId = benchmark.orderService.createOrder(benchmark.userId).getId();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:stock-reservation-" + shards,
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "inventory.stock-shards=" + shards)
+                .run();
+        orderService = context.getBean(OrderService.class);
+        orderDetailService = context.getBean(OrderDetailService.class);
+        userId = context.getBean(UserRepository.class)
+                .save(User.builder().email("buyer@example.com").password("secret").build()).getId();
+
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setName("Flash sale console");
+        productDTO.setDescription("Hot SKU");
+        productDTO.setPrice(new BigDecimal("499.99"));
+        productDTO.setStock(Integer.MAX_VALUE);
+        productId = context.getBean(ProductService.class).createProduct(productDTO).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object reserve(Buyer buyer) {
+        OrderDetailCreateDTO orderDetailCreateDTO = new OrderDetailCreateDTO();
+        orderDetailCreateDTO.setOrderId(buyer.orderId);
+        orderDetailCreateDTO.setProductId(productId);
+        orderDetailCreateDTO.setQuantity(1);
+        return orderDetailService.createOrderDetail(orderDetailCreateDTO);
+    }
+}
@@ -0,0 +1,109 @@
+package com.evertec.ecommerce.perf;
+
+import com.evertec.ecommerce.utils.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Measures primary key insert throughput into an H2 table keyed by UUID, comparing random
+ * (version 4) identifiers with the time-ordered (version 7) identifiers produced by
+ * {@link UuidV7Generator}. Each invocation inserts {@code rows} rows into an empty table in JDBC
+ * batches; the score is the time needed to insert all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final Path FILE_DATABASE_DIR = Path.of("target", "uuid-insert-benchmark");
+
+    @Param({"RANDOM", "V7"})
+    public String idStrategy;
+
+    @Param({"mem", "file"})
+    public String storage;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Connection connection;
+    private Supplier<UUID> idSupplier;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException, IOException {
+        idSupplier = "V7".equals(idStrategy) ? UuidV7Generator::nextUuid : UUID::randomUUID;
+
+        String url;
+        if ("file".equals(storage)) {
+            deleteDirectory(FILE_DATABASE_DIR);
+            url = "jdbc:h2:file:./" + FILE_DATABASE_DIR.resolve("bench") + ";CACHE_SIZE=65536";
+        } else {
+            url = "jdbc:h2:mem:uuid_insert_" + idStrategy + ";DB_CLOSE_DELAY=-1";
+        }
+        connection = DriverManager.getConnection(url, "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_order");
+            statement.execute("CREATE TABLE bench_order (id UUID PRIMARY KEY, status VARCHAR(255), created_at TIMESTAMP)");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_order");
+        }
+        connection.commit();
+        connection.close();
+        if ("file".equals(storage)) {
+            deleteDirectory(FILE_DATABASE_DIR);
+        }
+    }
+
+    @Benchmark
+    public int insertRows() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_order (id, status, created_at) VALUES (?, 'PENDING', CURRENT_TIMESTAMP)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, idSupplier.get());
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return rows;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.evertec.ecommerce;
+
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.NotFoundException;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.service.ProductService;
+import com.evertec.ecommerce.utils.OrderStatus;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the transactional service and JDBC paths on virtual threads with a connection pool much
+ * smaller than the number of callers, so callers have to park while waiting for connections, and
+ * records JFR {@code jdk.VirtualThreadPinned} events. A virtual thread that parks while holding a
+ * monitor pins its carrier thread; none of the application's code paths may do that.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:virtual-thread-pinning",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.jpa.show-sql=false"
+})
+class VirtualThreadPinningTest {
+
+    private static final int CALLERS = 64;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Tests that no virtual thread is pinned while creating, reading and updating orders and while
+     * loading products through the product cache.
+     */
+    @Test
+    void transactionalPathsDoNotPinVirtualThreads(@TempDir Path tempDir) throws Exception {
+        UUID userId = userRepository.save(User.builder().email("pinning@example.com").password("secret").build()).getId();
+        Path dump = tempDir.resolve("pinning.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<OrderStatus>> futures = java.util.stream.IntStream.range(0, CALLERS)
+                        .mapToObj(i -> executor.submit(() -> {
+                            Order order = orderService.createOrder(userId);
+                            orderService.getOrderById(order.getId());
+                            try {
+                                productService.getProductById(UUID.randomUUID());
+                            } catch (NotFoundException expected) {
+                                // Unknown ids go through the cache loader and the database
+                            }
+                            OrderUpdateStatusDTO orderUpdateStatusDTO = new OrderUpdateStatusDTO();
+                            orderUpdateStatusDTO.setOrderId(order.getId());
+                            orderUpdateStatusDTO.setStatus(OrderStatus.COMPLETED);
+                            return orderService.updateOrderStatus(orderUpdateStatusDTO).getOrderStatus();
+                        }))
+                        .toList();
+                for (Future<OrderStatus> future : futures) {
+                    assertEquals(OrderStatus.COMPLETED, future.get());
+                }
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> pinnedStacks = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .map(VirtualThreadPinningTest::describe)
+                .toList();
+        assertTrue(pinnedStacks.isEmpty(), "Virtual threads were pinned:\n" + String.join("\n\n", pinnedStacks));
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        StringBuilder description = new StringBuilder();
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            description.append("  at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName()).append('\n');
+        }
+        return description.toString();
+    }
+}
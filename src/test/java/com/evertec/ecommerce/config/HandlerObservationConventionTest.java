@@ -0,0 +1,50 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.controllers.ProductController;
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class HandlerObservationConventionTest {
+
+    private final HandlerObservationConvention convention = new HandlerObservationConvention();
+
+    /**
+     * Tests that a request served by a controller method is tagged with that method's name.
+     */
+    @Test
+    void getLowCardinalityKeyValues_TagsControllerMethod() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        HandlerMethod handlerMethod = new HandlerMethod(mock(ProductController.class),
+                Arrays.stream(ProductController.class.getMethods()).filter(method -> method.getName().equals("getProducts")).findFirst().orElseThrow());
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+
+        assertEquals("ProductController.getProducts", handlerTag(request));
+    }
+
+    /**
+     * Tests that a request no controller method matched is tagged as having no handler.
+     */
+    @Test
+    void getLowCardinalityKeyValues_TagsRequestsWithoutHandler() {
+        assertEquals("none", handlerTag(new MockHttpServletRequest("GET", "/missing")));
+    }
+
+    private String handlerTag(MockHttpServletRequest request) {
+        ServerRequestObservationContext context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+                .filter(keyValue -> keyValue.getKey().equals("handler"))
+                .map(KeyValue::getValue)
+                .findFirst()
+                .orElseThrow();
+    }
+}
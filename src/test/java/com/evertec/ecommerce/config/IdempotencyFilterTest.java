@@ -0,0 +1,165 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.exceptions.IdempotencyKeyReusedException;
+import com.evertec.ecommerce.utils.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class IdempotencyFilterTest {
+
+    private static final String ORDERS_PATH = "/api/v1/orders/create/user/0190a2f4-0000-7000-8000-000000000000";
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+    private final IdempotencyFilter idempotencyFilter = new IdempotencyFilter(idempotencyStore, handlerExceptionResolver);
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private int responseStatus = 200;
+    private final FilterChain controller = (request, response) -> {
+        String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        ((HttpServletResponse) response).setStatus(responseStatus);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"call\":" + handled.incrementAndGet() + ",\"body\":\"" + body + "\"}");
+    };
+
+    @BeforeEach
+    void authenticate() {
+        authenticateAs("buyer@example.com");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Tests that a retry with the same key and request is answered with the stored response,
+     * marked as replayed, without reaching the controller again.
+     */
+    @Test
+    void retryWithSameKeyReplaysStoredResponse() throws Exception {
+        MockHttpServletResponse first = send("key-1", "payload");
+        MockHttpServletResponse retry = send("key-1", "payload");
+
+        assertEquals(1, handled.get());
+        assertEquals(200, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("{\"call\":1,\"body\":\"payload\"}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    /**
+     * Tests that reusing a key for a different request is rejected instead of replaying the
+     * response of the first one.
+     */
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        send("key-1", "payload");
+        MockHttpServletResponse reused = send("key-1", "other payload");
+
+        assertEquals(1, handled.get());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), isA(IdempotencyKeyReusedException.class));
+        assertEquals("", reused.getContentAsString());
+    }
+
+    /**
+     * Tests that a retry arriving while the first request is still being processed is rejected
+     * with a conflict rather than processed a second time.
+     */
+    @Test
+    void retryWhileFirstRequestIsInFlightIsRejected() throws Exception {
+        FilterChain slowController = (request, response) -> {
+            handled.incrementAndGet();
+            send("key-1", "payload");
+        };
+        idempotencyFilter.doFilter(request("key-1", "payload"), new MockHttpServletResponse(), slowController);
+
+        assertEquals(1, handled.get());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), isA(ConflictException.class));
+    }
+
+    /**
+     * Tests that a server error frees the key, so the client's retry is processed.
+     */
+    @Test
+    void serverErrorIsNotStored() throws Exception {
+        responseStatus = 500;
+        send("key-1", "payload");
+        responseStatus = 200;
+        MockHttpServletResponse retry = send("key-1", "payload");
+
+        assertEquals(2, handled.get());
+        assertEquals("{\"call\":2,\"body\":\"payload\"}", retry.getContentAsString());
+    }
+
+    /**
+     * Tests that keys are scoped to the authenticated user, so two users picking the same key do
+     * not see each other's responses.
+     */
+    @Test
+    void keysAreScopedToTheUser() throws Exception {
+        send("key-1", "payload");
+        authenticateAs("other@example.com");
+        MockHttpServletResponse other = send("key-1", "payload");
+
+        assertEquals(2, handled.get());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    /**
+     * Tests that requests without the header are passed through untouched every time.
+     */
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() throws Exception {
+        send(null, "payload");
+        send(null, "payload");
+
+        assertEquals(2, handled.get());
+    }
+
+    private MockHttpServletResponse send(String idempotencyKey, String body) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request(idempotencyKey, body), response, controller);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", ORDERS_PATH);
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(email, null, "USER"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.evertec.ecommerce.config;
+
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.utils.JwtPrincipalCache;
+import com.evertec.ecommerce.utils.JwtTokenUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "buyer@example.com";
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(new SimpleMeterRegistry());
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtPrincipalCache jwtPrincipalCache = new JwtPrincipalCache(100, new SimpleMeterRegistry());
+    private final JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenUtil, userRepository, jwtPrincipalCache);
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Tests that a verified token is served from the principal cache afterwards, without looking
+     * the user up again.
+     */
+    @Test
+    void verifiedTokenIsServedFromCache() throws Exception {
+        String token = jwtTokenUtil.generateToken(EMAIL, 0);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(0)));
+
+        assertNotNull(authenticate(token));
+        assertNotNull(authenticate(token));
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    /**
+     * Tests that a logout committing while a request is between its user lookup and its cache
+     * write does not leave the revoked token in the cache: the in-flight request completes with
+     * the version it read, but the next request with the token is checked again and rejected.
+     */
+    @Test
+    void logoutDuringCacheMissIsNotUndoneByInFlightRequest() throws Exception {
+        String token = jwtTokenUtil.generateToken(EMAIL, 0);
+        when(userRepository.findByEmail(EMAIL))
+                .thenAnswer(invocation -> {
+                    // The lookup has read version 0; the logout commits and evicts before the request caches the token
+                    jwtPrincipalCache.invalidateAll(EMAIL);
+                    return Optional.of(user(0));
+                })
+                .thenReturn(Optional.of(user(1)));
+
+        assertNotNull(authenticate(token));
+
+        assertTrue(jwtPrincipalCache.get(token).isEmpty());
+        assertNull(authenticate(token));
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    /**
+     * Tests that a principal cached before a revocation is not served once the revocation bumps
+     * the generation, even if it was stored after the eviction scan.
+     */
+    @Test
+    void principalOfOlderGenerationIsNotServed() {
+        String token = jwtTokenUtil.generateToken(EMAIL, 0);
+        long generation = jwtPrincipalCache.generation(EMAIL);
+
+        jwtPrincipalCache.invalidateAll(EMAIL);
+        jwtPrincipalCache.put(token, EMAIL, System.currentTimeMillis() + 60_000, generation);
+
+        assertEquals(generation + 1, jwtPrincipalCache.generation(EMAIL));
+        assertTrue(jwtPrincipalCache.get(token).isEmpty());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(int tokenVersion) {
+        return User.builder().email(EMAIL).password("hashed").tokenVersion(tokenVersion).build();
+    }
+}
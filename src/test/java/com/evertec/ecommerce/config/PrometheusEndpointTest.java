@@ -0,0 +1,82 @@
+package com.evertec.ecommerce.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives one request through every controller of the running application and scrapes
+ * {@code /actuator/prometheus}, checking that each meter family the dashboards rely on is exported.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:prometheus-endpoint",
+        "spring.jpa.show-sql=false",
+        "security.bcrypt.strength=4",
+        "outbox.dispatcher.enabled=false"
+})
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Tests that the scrape holds the per-handler request timers with their histogram buckets, the
+     * repository timers, the HikariCP pool gauges and the JWT and BCrypt timers.
+     */
+    @Test
+    void prometheus_ExportsEveryMeterFamily() throws Exception {
+        Map<String, String> credentials = Map.of("email", "metrics@example.com", "password", "password123");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/v1/users", credentials, String.class).getStatusCode());
+        JsonNode user = objectMapper.readTree(restTemplate.postForEntity("/api/v1/users/login", credentials, String.class).getBody());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(user.get("token").asText());
+        assertEquals(HttpStatus.OK, exchange(HttpMethod.GET, "/api/v1/products", headers).getStatusCode());
+        JsonNode order = objectMapper.readTree(exchange(HttpMethod.POST, "/api/v1/orders/create/user/" + user.get("id").asText(), headers).getBody());
+        assertEquals(HttpStatus.NOT_FOUND, exchange(HttpMethod.POST, "/api/v1/ordersDetails?orderId=" + order.get("id").asText()
+                + "&productId=" + UUID.randomUUID() + "&quantity=1", headers).getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        List<String> lines = scrape.getBody().lines().toList();
+
+        for (String handler : List.of("UserController.createUser", "UserController.loginUser", "ProductController.getProducts",
+                "OderController.createOrder", "OrderDetailController.creatOrderDetail")) {
+            assertTrue(hasSeries(lines, "http_server_requests_seconds_bucket{", "handler=\"" + handler + "\""), handler);
+        }
+        assertTrue(hasSeries(lines, "spring_data_repository_invocations_seconds_bucket{", "repository=\"UserRepository\""));
+        assertTrue(hasSeries(lines, "hikaricp_connections_active{", "pool="));
+        assertTrue(hasSeries(lines, "hikaricp_connections_acquire_seconds_bucket{", "pool="));
+        assertTrue(hasSeries(lines, "security_jwt_validation_seconds_bucket{", "result=\"valid\""));
+        assertTrue(hasSeries(lines, "security_bcrypt_seconds_bucket{", "operation=\"encode\""));
+        assertTrue(hasSeries(lines, "security_bcrypt_seconds_bucket{", "operation=\"matches\""));
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String path, HttpHeaders headers) {
+        return restTemplate.exchange(path, method, new HttpEntity<>(headers), String.class);
+    }
+
+    private static boolean hasSeries(List<String> lines, String prefix, String tag) {
+        return lines.stream().anyMatch(line -> line.startsWith(prefix) && line.contains(tag));
+    }
+}
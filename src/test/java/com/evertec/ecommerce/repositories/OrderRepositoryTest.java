@@ -0,0 +1,179 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.OrderDetail;
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.utils.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryTest {
+
+    private static final int ORDERS = 5;
+    private static final int LINES_PER_ORDER = 4;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID userId;
+    private UUID orderId;
+
+    /**
+     * Persists one user with several orders, each with several lines pointing at distinct products,
+     * then clears the persistence context so every assertion starts from an empty first-level cache.
+     */
+    @BeforeEach
+    void setUp() {
+        User user = testEntityManager.persist(User.builder().email("fetch@example.com").password("secret").build());
+        userId = user.getId();
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = testEntityManager.persist(Order.builder().user(user).orderStatus(OrderStatus.PENDING).build());
+            orderId = order.getId();
+            for (int j = 0; j < LINES_PER_ORDER; j++) {
+                Product product = testEntityManager.persist(Product.builder().name("Product " + i + "-" + j).price(new BigDecimal("10.00")).build());
+                testEntityManager.persist(OrderDetail.builder().order(order).product(product).quantity(1).unitPrice(BigDecimal.TEN).build());
+            }
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Tests that loading an order and walking its lines and their products issues a single statement.
+     */
+    @Test
+    @DisplayName("findWithOrderDetailsById loads order, lines and products in one statement")
+    void findWithOrderDetailsByIdUsesSingleStatement() {
+        Order order = orderRepository.findWithOrderDetailsById(orderId).orElseThrow();
+
+        int lines = 0;
+        for (OrderDetail orderDetail : order.getOrderDetails()) {
+            orderDetail.getProduct().getName();
+            lines++;
+        }
+
+        assertEquals(LINES_PER_ORDER, lines);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that one page of a user's order history, loaded the way UserServiceImpl does it
+     * (keyset page query, then one entity graph query for the lines), costs two statements no
+     * matter how many orders, lines and products the page walks.
+     */
+    @Test
+    @DisplayName("Order history page loads orders, lines and products in two statements")
+    void orderHistoryPageUsesTwoStatements() {
+        List<Order> orders = orderRepository.findBy(
+                Specification.where(OrderSpecifications.belongsToUser(userId)).and(OrderSpecifications.hasStatus(OrderStatus.PENDING)),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(ORDERS).all());
+        orderRepository.findWithOrderDetailsByIdIn(orders.stream().map(Order::getId).toList());
+
+        int lines = 0;
+        for (Order order : orders) {
+            for (OrderDetail orderDetail : order.getOrderDetails()) {
+                orderDetail.getProduct().getName();
+                lines++;
+            }
+        }
+
+        assertEquals(ORDERS, orders.size());
+        assertEquals(ORDERS * LINES_PER_ORDER, lines);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that incrementTotal adds to the stored total in a single statement and that saving the
+     * order entity afterwards does not overwrite the increment with the total it was loaded with.
+     */
+    @Test
+    @DisplayName("incrementTotal adds atomically and survives a later save of the order")
+    void incrementTotalIsNotOverwrittenBySave() {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+
+        assertEquals(1, orderRepository.incrementTotal(orderId, new BigDecimal("12.50")));
+        assertEquals(1, orderRepository.incrementTotal(orderId, new BigDecimal("7.25")));
+        order.setOrderStatus(OrderStatus.CANCELLED);
+        orderRepository.saveAndFlush(order);
+        testEntityManager.clear();
+
+        assertEquals(new BigDecimal("19.75"), orderRepository.findById(orderId).orElseThrow().getTotal());
+    }
+
+    /**
+     * Tests that an order row inserted without a version, as bulk loaders do, starts at version 0
+     * and can be updated through the entity with optimistic locking.
+     */
+    @Test
+    @DisplayName("Orders inserted without a version default to 0 and stay updatable")
+    void versionDefaultsToZeroForRowsInsertedWithoutIt() {
+        UUID insertedId = UUID.randomUUID();
+        testEntityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO orders (id, order_status, total, user_id) VALUES (?, 'PENDING', 0, ?)")
+                .setParameter(1, insertedId)
+                .setParameter(2, userId)
+                .executeUpdate();
+
+        Order inserted = orderRepository.findById(insertedId).orElseThrow();
+        assertEquals(0L, inserted.getVersion());
+        inserted.setOrderStatus(OrderStatus.CANCELLED);
+        orderRepository.saveAndFlush(inserted);
+
+        assertEquals(1L, inserted.getVersion());
+    }
+
+    /**
+     * Tests that transitionStatuses only moves orders still in the expected status, in one
+     * statement, and bumps their version so concurrent single-order updates notice the change.
+     */
+    @Test
+    @DisplayName("transitionStatuses updates only orders in the expected status and bumps their version")
+    void transitionStatusesIsGuardedByExpectedStatus() {
+        Order completed = orderRepository.findById(orderId).orElseThrow();
+        completed.setOrderStatus(OrderStatus.COMPLETED);
+        orderRepository.saveAndFlush(completed);
+        List<UUID> ids = orderRepository.findAll().stream().map(Order::getId).toList();
+        testEntityManager.clear();
+        statistics.clear();
+
+        int updated = orderRepository.transitionStatuses(ids, OrderStatus.PENDING, OrderStatus.CANCELLED, LocalDateTime.now());
+
+        assertEquals(ORDERS - 1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        testEntityManager.clear();
+        assertEquals(OrderStatus.COMPLETED, orderRepository.findById(orderId).orElseThrow().getOrderStatus());
+        assertEquals(ORDERS - 1, orderRepository.findStatusesForUpdate(ids).stream()
+                .filter(view -> view.orderStatus() == OrderStatus.CANCELLED).count());
+        assertEquals(List.of(1L), orderRepository.findAll().stream()
+                .filter(order -> order.getOrderStatus() == OrderStatus.CANCELLED).map(Order::getVersion).distinct().toList());
+    }
+}
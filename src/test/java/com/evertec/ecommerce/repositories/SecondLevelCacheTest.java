@@ -0,0 +1,154 @@
+package com.evertec.ecommerce.repositories;
+
+import com.evertec.ecommerce.config.HibernateCacheConfig;
+import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.service.InventoryService;
+import com.evertec.ecommerce.service.OrderDetailService;
+import com.evertec.ecommerce.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads products and order lines in separate transactions against the real context, so every read
+ * after the first can only be served by the second-level cache.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache",
+        "spring.jpa.show-sql=false",
+        // Statements are counted globally; keep the outbox poller quiet
+        "outbox.dispatcher.enabled=false"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    /**
+     * Tests that a product read once is served from the cache by later transactions, and that the
+     * hits are reported through the per-region metrics.
+     */
+    @Test
+    void findById_ServesProductFromCache() {
+        UUID productId = productRepository.save(Product.builder().name("Keyboard").price(new BigDecimal("25.00")).build()).getId();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            transactionTemplate.execute(status -> productRepository.findById(productId).orElseThrow());
+        }
+
+        // The product was put in the cache when its insert committed
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.PRODUCTS_REGION).getHitCount());
+        // The metrics read the same statistics
+        assertEquals(3, regionHits(HibernateCacheConfig.PRODUCTS_REGION));
+    }
+
+    /**
+     * Tests that loading several products only queries the ones the cache does not hold.
+     */
+    @Test
+    void loadAllById_QueriesOnlyUncachedProducts() {
+        UUID cached = productRepository.save(Product.builder().name("Mouse").price(new BigDecimal("10.00")).build()).getId();
+        UUID uncached = productRepository.save(Product.builder().name("Monitor").price(new BigDecimal("200.00")).build()).getId();
+        entityManagerFactory.getCache().evict(Product.class, uncached);
+        statistics.clear();
+
+        List<Product> products = transactionTemplate.execute(status -> productRepository.loadAllById(Set.of(cached, uncached, UUID.randomUUID())));
+
+        assertEquals(2, products.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.PRODUCTS_REGION).getHitCount());
+    }
+
+    /**
+     * Tests that an order's lines are served from the cache once loaded, and that adding a line
+     * evicts the cached list so the next read sees it.
+     */
+    @Test
+    void orderDetails_AreCachedAndEvictedWhenALineIsAdded() {
+        UUID userId = userRepository.save(User.builder().email("cache@example.com").password("secret").build()).getId();
+        Product product = productRepository.save(Product.builder().name("Cable").price(new BigDecimal("5.00")).build());
+        inventoryService.initializeStock(product, 100);
+        Order order = orderService.createOrder(userId);
+        orderDetailService.createOrderDetail(line(order.getId(), product.getId()));
+
+        assertEquals(1, countLines(order.getId()));
+        statistics.clear();
+        assertEquals(1, countLines(order.getId()));
+        // Only the order itself is read; its line ids and lines come from the cache
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        orderDetailService.createOrderDetail(line(order.getId(), product.getId()));
+
+        assertEquals(2, countLines(order.getId()));
+    }
+
+    private int countLines(UUID orderId) {
+        return transactionTemplate.execute(status -> orderRepository.findById(orderId).orElseThrow().getOrderDetails().size());
+    }
+
+    private double regionHits(String region) {
+        return meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", region)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private static OrderDetailCreateDTO line(UUID orderId, UUID productId) {
+        OrderDetailCreateDTO orderDetailCreateDTO = new OrderDetailCreateDTO();
+        orderDetailCreateDTO.setOrderId(orderId);
+        orderDetailCreateDTO.setProductId(productId);
+        orderDetailCreateDTO.setQuantity(1);
+        return orderDetailCreateDTO;
+    }
+}
@@ -0,0 +1,182 @@
+package com.evertec.ecommerce.serviceImpl;
+
+import com.evertec.ecommerce.dto.OrderBulkUpdateStatusDTO;
+import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.dto.OrderStatusLineDTO;
+import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.InventoryService;
+import com.evertec.ecommerce.service.OrderDetailService;
+import com.evertec.ecommerce.service.OrderService;
+import com.evertec.ecommerce.service.ProductService;
+import com.evertec.ecommerce.utils.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs stock reservations for one product from many concurrent buyers against the real services
+ * and database, and checks that the sharded stock never oversells and is returned on cancellation.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-concurrency",
+        "spring.jpa.show-sql=false",
+        "inventory.stock-shards=8"
+})
+class InventoryServiceImplConcurrencyTest {
+
+    private static final int STOCK = 100;
+    private static final int BUYERS = 400;
+    private static final int RACES = 40;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID userId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(User.builder().email(UUID.randomUUID() + "@example.com").password("secret").build()).getId();
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setName("Flash sale console");
+        productDTO.setDescription("Hot SKU");
+        productDTO.setPrice(new BigDecimal("499.99"));
+        productDTO.setStock(STOCK);
+        productId = productService.createProduct(productDTO).getId();
+    }
+
+    /**
+     * Tests that concurrent buyers of a single unit each get exactly the available stock between
+     * them, that every other buyer is rejected with a ConflictException, and that cancelling
+     * orders returns their units.
+     */
+    @Test
+    void reserve_ConcurrentBuyersNeverOversell() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UUID>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int buyer = 0; buyer < BUYERS; buyer++) {
+                futures.add(executor.submit(() -> {
+                    UUID orderId = orderService.createOrder(userId).getId();
+                    start.await();
+                    try {
+                        orderDetailService.createOrderDetail(line(orderId, 1));
+                        return orderId;
+                    } catch (ConflictException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+
+        List<UUID> served = new ArrayList<>();
+        for (Future<UUID> future : futures) {
+            if (future.get() != null) {
+                served.add(future.get());
+            }
+        }
+
+        assertEquals(STOCK, served.size());
+        assertEquals(0, inventoryService.getStock(productId));
+
+        served.subList(0, 10).forEach(orderService::cancelOrder);
+        served.subList(0, 10).forEach(orderService::cancelOrder);
+        assertEquals(10, inventoryService.getStock(productId));
+    }
+
+    /**
+     * Tests that a quantity larger than any single shard is gathered from several shards, and that
+     * a quantity larger than the whole stock is rejected without taking anything.
+     */
+    @Test
+    void reserve_GathersFromSeveralShardsAndRollsBackWhenShort() {
+        UUID orderId = orderService.createOrder(userId).getId();
+
+        assertThrows(ConflictException.class, () -> orderDetailService.createOrderDetail(line(orderId, STOCK + 1)));
+        assertEquals(STOCK, inventoryService.getStock(productId));
+
+        orderDetailService.createOrderDetail(line(orderId, STOCK / 2));
+        assertEquals(STOCK / 2, inventoryService.getStock(productId));
+    }
+
+    /**
+     * Tests that adding a line races safely with cancelling its order, in bulk or on its own: the
+     * line is either rejected or its unit is returned by the cancellation, so no stock leaks, and
+     * neither side fails with a deadlock.
+     */
+    @Test
+    void createOrderDetail_RacingCancellationNeverLeaksStock() throws Exception {
+        for (int race = 0; race < RACES; race++) {
+            UUID orderId = orderService.createOrder(userId).getId();
+            boolean bulk = race % 2 == 0;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return orderDetailService.createOrderDetail(line(orderId, 1));
+                    } catch (ConflictException e) {
+                        return e;
+                    }
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return bulk ? orderService.updateOrderStatuses(cancellation(orderId)) : orderService.cancelOrder(orderId);
+                }));
+                start.countDown();
+            }
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+
+            assertEquals(STOCK, inventoryService.getStock(productId));
+        }
+    }
+
+    private OrderDetailCreateDTO line(UUID orderId, int quantity) {
+        OrderDetailCreateDTO orderDetailCreateDTO = new OrderDetailCreateDTO();
+        orderDetailCreateDTO.setOrderId(orderId);
+        orderDetailCreateDTO.setProductId(productId);
+        orderDetailCreateDTO.setQuantity(quantity);
+        return orderDetailCreateDTO;
+    }
+
+    private static OrderBulkUpdateStatusDTO cancellation(UUID orderId) {
+        OrderStatusLineDTO orderStatusLineDTO = new OrderStatusLineDTO();
+        orderStatusLineDTO.setOrderId(orderId);
+        orderStatusLineDTO.setStatus(OrderStatus.CANCELLED);
+        OrderBulkUpdateStatusDTO orderBulkUpdateStatusDTO = new OrderBulkUpdateStatusDTO();
+        orderBulkUpdateStatusDTO.setOrders(List.of(orderStatusLineDTO));
+        return orderBulkUpdateStatusDTO;
+    }
+}
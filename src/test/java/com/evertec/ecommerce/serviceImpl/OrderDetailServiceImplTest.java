@@ -1,24 +1,34 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.OrderDetailBulkCreateDTO;
 import com.evertec.ecommerce.dto.OrderDetailCreateDTO;
+import com.evertec.ecommerce.dto.OrderDetailLineDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.OrderDetail;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.exceptions.ConflictException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
 import com.evertec.ecommerce.repositories.OrderDetailRepository;
 import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.ProductRepository;
+import com.evertec.ecommerce.service.InventoryService;
+import com.evertec.ecommerce.utils.OrderStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 
@@ -33,6 +43,9 @@ class OrderDetailServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private InventoryService inventoryService;
+
     @InjectMocks
     private OrderDetailServiceImpl orderDetailServiceImpl;
 
@@ -46,7 +59,8 @@ class OrderDetailServiceImplTest {
      * The test verifies the following:
      * 1. An OrderDetail entity is created with the correct order ID, product ID, and quantity specified in the input data transfer object.
      * 2. The corresponding repositories (`orderRepository`, `productRepository`, and `orderDetailRepository`) are called the expected number of times.
-     * 3. The returned OrderDetail contains the expected field values.
+     * 3. The returned OrderDetail contains the expected field values, including a snapshot of the product's price.
+     * 4. The order's total is incremented by the line amount.
      *
      * Test Steps:
      * - Mock the retrieval of an existing Order and Product through their respective repositories.
@@ -58,9 +72,10 @@ class OrderDetailServiceImplTest {
      *
      * Assertions:
      * - The returned OrderDetail has matching order ID, product ID, and quantity to the input values.
-     * - `orderRepository.findById` is called exactly once.
+     * - `orderRepository.findByIdForUpdate` is called exactly once.
      * - `productRepository.findById` is called exactly once.
      * - `orderDetailRepository.save` is called exactly once.
+     * - `orderRepository.incrementTotal` is called once with the unit price times the quantity.
      */
     @Test
     @DisplayName("Should Successfully Create OrderDetail")
@@ -68,34 +83,56 @@ class OrderDetailServiceImplTest {
         UUID orderId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        Order order = Order.builder().id(orderId).build();
-        Product product = Product.builder().id(productId).build();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
+        Product product = Product.builder().id(productId).price(new BigDecimal("10.50")).build();
 
         OrderDetailCreateDTO createDTO = new OrderDetailCreateDTO();
         createDTO.setOrderId(orderId);
         createDTO.setProductId(productId);
         createDTO.setQuantity(2);
 
-        OrderDetail orderDetail = OrderDetail.builder()
-                .id(UUID.randomUUID())
-                .order(order)
-                .product(product)
-                .quantity(createDTO.getQuantity())
-                .build();
-
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(orderDetailRepository.save(any(OrderDetail.class))).thenReturn(orderDetail);
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         OrderDetail result = orderDetailServiceImpl.createOrderDetail(createDTO);
 
         assertEquals(orderId, result.getOrder().getId());
         assertEquals(productId, result.getProduct().getId());
         assertEquals(createDTO.getQuantity(), result.getQuantity());
+        assertEquals(new BigDecimal("10.50"), result.getUnitPrice());
 
-        verify(orderRepository, times(1)).findById(orderId);
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(productRepository, times(1)).findById(productId);
         verify(orderDetailRepository, times(1)).save(any(OrderDetail.class));
+        verify(orderRepository, times(1)).incrementTotal(orderId, new BigDecimal("21.00"));
+        verify(inventoryService, times(1)).reserve(Map.of(productId, 2));
+    }
+
+    /**
+     * Tests that no line is written and the total is left untouched when the product does not
+     * have enough stock.
+     */
+    @Test
+    @DisplayName("Should Throw Exception When Stock Is Insufficient")
+    void testCreateOrderDetailInsufficientStock() {
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        OrderDetailCreateDTO createDTO = new OrderDetailCreateDTO();
+        createDTO.setOrderId(orderId);
+        createDTO.setProductId(productId);
+        createDTO.setQuantity(5);
+
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build()));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(Product.builder().id(productId).price(new BigDecimal("10.00")).build()));
+        doThrow(new ConflictException("Insufficient stock for product with id: " + productId))
+                .when(inventoryService).reserve(Map.of(productId, 5));
+
+        assertThrows(ConflictException.class, () -> orderDetailServiceImpl.createOrderDetail(createDTO));
+
+        verify(orderDetailRepository, never()).save(any());
+        verify(orderRepository, never()).incrementTotal(any(), any());
     }
 
     /**
@@ -103,12 +140,12 @@ class OrderDetailServiceImplTest {
      *
      * Scenario:
      * - A new OrderDetailCreateDTO object is created with a random orderId, productId, and a valid quantity.
-     * - The `orderRepository.findById` method is mocked to return an empty `Optional`, simulating a missing order.
+     * - The `orderRepository.findByIdForUpdate` method is mocked to return an empty `Optional`, simulating a missing order.
      * - The `orderDetailServiceImpl.createOrderDetail` method is invoked, and a `NotFoundException` is expected.
      *
      * Verifications:
      * - Asserts that the `NotFoundException` is thrown with the correct message, indicating that the order with the specified ID does not exist.
-     * - Ensures that the `orderRepository.findById` method is called exactly once with the expected orderId.
+     * - Ensures that the `orderRepository.findByIdForUpdate` method is called exactly once with the expected orderId.
      * - Confirms that `productRepository.findById` and `orderDetailRepository.save` are never invoked, as the process fails due to the missing order.
      */
     @Test
@@ -122,13 +159,13 @@ class OrderDetailServiceImplTest {
         createDTO.setProductId(productId);
         createDTO.setQuantity(2);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> orderDetailServiceImpl.createOrderDetail(createDTO));
 
         assertEquals("Order not found with id: " + orderId, exception.getMessage());
 
-        verify(orderRepository, times(1)).findById(orderId);
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(productRepository, never()).findById(any());
         verify(orderDetailRepository, never()).save(any());
     }
@@ -142,7 +179,7 @@ class OrderDetailServiceImplTest {
      *   with the specified ID does not exist.
      * - The exception message correctly identifies the missing product.
      * - The correct interactions occur with the mocked repositories:
-     *   - The {@code orderRepository.findById} method is called once.
+     *   - The {@code orderRepository.findByIdForUpdate} method is called once.
      *   - The {@code productRepository.findById} method is called once.
      *   - The {@code orderDetailRepository.save} method is never called.
      *
@@ -161,22 +198,141 @@ class OrderDetailServiceImplTest {
         UUID orderId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        Order order = Order.builder().id(orderId).build();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
 
         OrderDetailCreateDTO createDTO = new OrderDetailCreateDTO();
         createDTO.setOrderId(orderId);
         createDTO.setProductId(productId);
         createDTO.setQuantity(2);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> orderDetailServiceImpl.createOrderDetail(createDTO));
 
         assertEquals("Product not found with id: " + productId, exception.getMessage());
 
-        verify(orderRepository, times(1)).findById(orderId);
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(productRepository, times(1)).findById(productId);
         verify(orderDetailRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the bulk creation of order lines.
+     *
+     * Verifies that:
+     * - The order is loaded once and all products are resolved with a single loadAllById call,
+     *   even when the same product appears on several lines.
+     * - All OrderDetail entities are written with a single saveAll call, in the order of the requested lines.
+     * - Each line stores its product's price and the order's total is incremented once by the sum of all lines.
+     * - Stock is reserved once per product, for the sum of its lines.
+     */
+    @Test
+    @DisplayName("Should Create All OrderDetails With One Product Lookup")
+    void testCreateOrderDetailsSuccess() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
+        Product laptop = Product.builder().id(UUID.randomUUID()).price(new BigDecimal("1200.00")).build();
+        Product mouse = Product.builder().id(UUID.randomUUID()).price(new BigDecimal("49.99")).build();
+
+        OrderDetailBulkCreateDTO bulkCreateDTO = new OrderDetailBulkCreateDTO();
+        bulkCreateDTO.setOrderId(orderId);
+        bulkCreateDTO.setLines(List.of(line(laptop.getId(), 1), line(mouse.getId(), 2), line(laptop.getId(), 3)));
+
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(productRepository.loadAllById(Set.of(laptop.getId(), mouse.getId()))).thenReturn(List.of(laptop, mouse));
+        when(orderDetailRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<OrderDetail> result = orderDetailServiceImpl.createOrderDetails(bulkCreateDTO);
+
+        assertEquals(3, result.size());
+        assertEquals(laptop, result.get(0).getProduct());
+        assertEquals(mouse, result.get(1).getProduct());
+        assertEquals(3, result.get(2).getQuantity());
+        assertTrue(result.stream().allMatch(orderDetail -> orderDetail.getOrder() == order));
+        assertEquals(new BigDecimal("49.99"), result.get(1).getUnitPrice());
+
+        verify(productRepository, times(1)).loadAllById(any());
+        verify(productRepository, never()).findById(any());
+        verify(orderDetailRepository, times(1)).saveAll(anyList());
+        verify(orderRepository, times(1)).incrementTotal(orderId, new BigDecimal("4899.98"));
+        verify(inventoryService, times(1)).reserve(Map.of(laptop.getId(), 4, mouse.getId(), 2));
+    }
+
+    /**
+     * Tests that the bulk creation fails without writing anything when one of the products does not exist.
+     */
+    @Test
+    @DisplayName("Should Throw Exception When A Bulk Product Is Not Found")
+    void testCreateOrderDetailsProductNotFound() {
+        UUID orderId = UUID.randomUUID();
+        UUID missingProductId = UUID.randomUUID();
+        Product laptop = Product.builder().id(UUID.randomUUID()).build();
+
+        OrderDetailBulkCreateDTO bulkCreateDTO = new OrderDetailBulkCreateDTO();
+        bulkCreateDTO.setOrderId(orderId);
+        bulkCreateDTO.setLines(List.of(line(laptop.getId(), 1), line(missingProductId, 1)));
+
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build()));
+        when(productRepository.loadAllById(any())).thenReturn(List.of(laptop));
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> orderDetailServiceImpl.createOrderDetails(bulkCreateDTO));
+
+        assertEquals("Product not found with id: " + missingProductId, exception.getMessage());
+        verify(orderDetailRepository, never()).saveAll(anyList());
+        verify(orderRepository, never()).incrementTotal(any(), any());
+        verify(inventoryService, never()).reserve(any());
+    }
+
+    /**
+     * Tests that a line cannot be added to an order that is no longer pending: no stock is
+     * reserved and nothing is written.
+     */
+    @Test
+    @DisplayName("Should Throw ConflictException When Adding A Line To A Cancelled Order")
+    void testCreateOrderDetailOrderNotPending() {
+        UUID orderId = UUID.randomUUID();
+        OrderDetailCreateDTO createDTO = new OrderDetailCreateDTO();
+        createDTO.setOrderId(orderId);
+        createDTO.setProductId(UUID.randomUUID());
+        createDTO.setQuantity(1);
+
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(Order.builder().id(orderId).orderStatus(OrderStatus.CANCELLED).build()));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> orderDetailServiceImpl.createOrderDetail(createDTO));
+
+        assertEquals("Cannot add lines to an order with status CANCELLED", exception.getMessage());
+        verify(productRepository, never()).findById(any());
+        verifyNoInteractions(inventoryService, orderDetailRepository);
+        verify(orderRepository, never()).incrementTotal(any(), any());
+    }
+
+    /**
+     * Tests that lines cannot be added in bulk to an order that is no longer pending: no stock is
+     * reserved and nothing is written.
+     */
+    @Test
+    @DisplayName("Should Throw ConflictException When Adding Lines To A Completed Order")
+    void testCreateOrderDetailsOrderNotPending() {
+        UUID orderId = UUID.randomUUID();
+        OrderDetailBulkCreateDTO bulkCreateDTO = new OrderDetailBulkCreateDTO();
+        bulkCreateDTO.setOrderId(orderId);
+        bulkCreateDTO.setLines(List.of(line(UUID.randomUUID(), 1)));
+
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(Order.builder().id(orderId).orderStatus(OrderStatus.COMPLETED).build()));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> orderDetailServiceImpl.createOrderDetails(bulkCreateDTO));
+
+        assertEquals("Cannot add lines to an order with status COMPLETED", exception.getMessage());
+        verify(productRepository, never()).loadAllById(any());
+        verifyNoInteractions(inventoryService, orderDetailRepository);
+        verify(orderRepository, never()).incrementTotal(any(), any());
+    }
+
+    private static OrderDetailLineDTO line(UUID productId, int quantity) {
+        OrderDetailLineDTO line = new OrderDetailLineDTO();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
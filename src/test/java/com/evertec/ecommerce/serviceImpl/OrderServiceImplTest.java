@@ -1,17 +1,31 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.OrderBulkUpdateStatusDTO;
+import com.evertec.ecommerce.dto.OrderStatusLineDTO;
+import com.evertec.ecommerce.dto.OrderStatusResultDTO;
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
 import com.evertec.ecommerce.entities.Order;
 import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.ConflictException;
 import com.evertec.ecommerce.exceptions.NotFoundException;
 import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.InventoryService;
+import com.evertec.ecommerce.service.OutboxService;
 import com.evertec.ecommerce.utils.OrderStatus;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,11 +40,22 @@ class OrderServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
     public OrderServiceImplTest() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     /**
@@ -69,6 +94,7 @@ class OrderServiceImplTest {
         assertEquals(OrderStatus.PENDING, createdOrder.getOrderStatus());
         verify(userRepository, times(1)).findUserById(userId);
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(outboxService, times(1)).recordStatus(createdOrder.getId(), OrderStatus.PENDING);
     }
 
     /**
@@ -96,4 +122,205 @@ class OrderServiceImplTest {
         verify(userRepository, times(1)).findUserById(userId);
         verify(orderRepository, never()).save(any(Order.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a pending order moves to the requested final status and is saved.
+     */
+    @Test
+    void updateOrderStatus_ShouldCompletePendingOrder() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        Order updatedOrder = orderService.updateOrderStatus(statusUpdate(orderId, OrderStatus.COMPLETED));
+
+        assertEquals(OrderStatus.COMPLETED, updatedOrder.getOrderStatus());
+        verify(orderRepository, times(1)).save(order);
+        verify(outboxService, times(1)).recordStatus(orderId, OrderStatus.COMPLETED);
+    }
+
+    /**
+     * Tests that requesting the status an order already has returns the order without saving it
+     * or recording an event.
+     */
+    @Test
+    void cancelOrder_ShouldBeNoOpForCancelledOrder() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.CANCELLED).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        Order cancelledOrder = orderService.cancelOrder(orderId);
+
+        assertEquals(OrderStatus.CANCELLED, cancelledOrder.getOrderStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryService, never()).releaseOrders(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    /**
+     * Tests that cancelling a pending order returns the stock reserved by its lines.
+     */
+    @Test
+    void cancelOrder_ShouldReleaseStockOfPendingOrder() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        assertEquals(OrderStatus.CANCELLED, orderService.cancelOrder(orderId).getOrderStatus());
+
+        verify(inventoryService, times(1)).releaseOrders(List.of(orderId));
+    }
+
+    /**
+     * Tests that a transition out of a final status is rejected with a ConflictException.
+     */
+    @Test
+    void cancelOrder_ShouldThrowConflictExceptionForCompletedOrder() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).orderStatus(OrderStatus.COMPLETED).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> orderService.cancelOrder(orderId));
+
+        assertEquals("Cannot change order status from COMPLETED to CANCELLED", exception.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    /**
+     * Tests that a version conflict is retried against the fresh state of the order: when the
+     * concurrent transaction already completed the order, the retry finds nothing left to do.
+     */
+    @Test
+    void updateOrderStatus_ShouldRetryAfterOptimisticLockingFailure() {
+        UUID orderId = UUID.randomUUID();
+        Order stale = Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build();
+        Order fresh = Order.builder().id(orderId).orderStatus(OrderStatus.COMPLETED).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(orderRepository.save(stale)).thenThrow(new ObjectOptimisticLockingFailureException(Order.class, orderId));
+
+        Order updatedOrder = orderService.updateOrderStatus(statusUpdate(orderId, OrderStatus.COMPLETED));
+
+        assertSame(fresh, updatedOrder);
+        verify(orderRepository, times(2)).findById(orderId);
+    }
+
+    /**
+     * Tests that the retry is bounded: an order that keeps changing concurrently is reported as a
+     * ConflictException after the maximum number of attempts.
+     */
+    @Test
+    void updateOrderStatus_ShouldThrowConflictExceptionWhenRetriesAreExhausted() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenAnswer(invocation ->
+                Optional.of(Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build()));
+        when(orderRepository.save(any(Order.class))).thenThrow(new ObjectOptimisticLockingFailureException(Order.class, orderId));
+
+        assertThrows(ConflictException.class, () -> orderService.updateOrderStatus(statusUpdate(orderId, OrderStatus.CANCELLED)));
+
+        verify(orderRepository, times(OrderServiceImpl.MAX_STATUS_UPDATE_ATTEMPTS)).save(any(Order.class));
+    }
+
+    /**
+     * Tests that a batch reports a result per line, in request order: allowed transitions are
+     * applied with one guarded update per target status, while unknown ids, repeated statuses and
+     * illegal transitions are reported without failing the batch.
+     */
+    @Test
+    void updateOrderStatuses_ShouldReportOutcomePerOrder() {
+        UUID toComplete = UUID.randomUUID();
+        UUID toCancel = UUID.randomUUID();
+        UUID completed = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(orderRepository.findStatusesForUpdate(any())).thenReturn(List.of(
+                new OrderRepository.StatusView(toComplete, OrderStatus.PENDING),
+                new OrderRepository.StatusView(toCancel, OrderStatus.PENDING),
+                new OrderRepository.StatusView(completed, OrderStatus.COMPLETED),
+                new OrderRepository.StatusView(cancelled, OrderStatus.CANCELLED)));
+        when(orderRepository.transitionStatuses(any(), eq(OrderStatus.PENDING), any(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).size());
+
+        List<OrderStatusResultDTO> results = orderService.updateOrderStatuses(bulkStatusUpdate(
+                statusLine(toComplete, OrderStatus.COMPLETED),
+                statusLine(toCancel, OrderStatus.CANCELLED),
+                statusLine(completed, OrderStatus.COMPLETED),
+                statusLine(cancelled, OrderStatus.COMPLETED),
+                statusLine(missing, OrderStatus.CANCELLED),
+                statusLine(toComplete, OrderStatus.CANCELLED)));
+
+        assertEquals(List.of(
+                OrderStatusResultDTO.Outcome.UPDATED,
+                OrderStatusResultDTO.Outcome.UPDATED,
+                OrderStatusResultDTO.Outcome.UNCHANGED,
+                OrderStatusResultDTO.Outcome.CONFLICT,
+                OrderStatusResultDTO.Outcome.NOT_FOUND,
+                OrderStatusResultDTO.Outcome.CONFLICT), results.stream().map(OrderStatusResultDTO::getOutcome).toList());
+        assertEquals("Cannot change order status from COMPLETED to CANCELLED", results.get(5).getMessage());
+        verify(orderRepository, times(1)).transitionStatuses(eq(Set.of(toComplete)), eq(OrderStatus.PENDING), eq(OrderStatus.COMPLETED), any());
+        verify(orderRepository, times(1)).transitionStatuses(eq(Set.of(toCancel)), eq(OrderStatus.PENDING), eq(OrderStatus.CANCELLED), any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(outboxService, times(1)).recordStatuses(Set.of(toComplete), OrderStatus.COMPLETED);
+        verify(outboxService, times(1)).recordStatuses(Set.of(toCancel), OrderStatus.CANCELLED);
+    }
+
+    /**
+     * Tests that a batch returns the stock of the orders it cancels, and only of those.
+     */
+    @Test
+    void updateOrderStatuses_ShouldReleaseStockOfCancelledOrdersOnly() {
+        UUID cancelled = UUID.randomUUID();
+        UUID completed = UUID.randomUUID();
+        UUID alreadyCancelled = UUID.randomUUID();
+        when(orderRepository.findStatusesForUpdate(any())).thenReturn(List.of(
+                new OrderRepository.StatusView(cancelled, OrderStatus.PENDING),
+                new OrderRepository.StatusView(completed, OrderStatus.PENDING),
+                new OrderRepository.StatusView(alreadyCancelled, OrderStatus.CANCELLED)));
+
+        orderService.updateOrderStatuses(bulkStatusUpdate(
+                statusLine(cancelled, OrderStatus.CANCELLED),
+                statusLine(completed, OrderStatus.COMPLETED),
+                statusLine(alreadyCancelled, OrderStatus.CANCELLED)));
+
+        verify(inventoryService, times(1)).releaseOrders(Set.of(cancelled));
+    }
+
+    /**
+     * Tests that a batch larger than one chunk is split into one transaction per chunk.
+     */
+    @Test
+    void updateOrderStatuses_ShouldUseOneTransactionPerChunk() {
+        when(orderRepository.findStatusesForUpdate(any())).thenReturn(List.of());
+        List<OrderStatusLineDTO> lines = new ArrayList<>();
+        for (int i = 0; i < OrderServiceImpl.STATUS_UPDATE_CHUNK_SIZE * 2 + 1; i++) {
+            lines.add(statusLine(UUID.randomUUID(), OrderStatus.COMPLETED));
+        }
+
+        List<OrderStatusResultDTO> results = orderService.updateOrderStatuses(bulkStatusUpdate(lines.toArray(OrderStatusLineDTO[]::new)));
+
+        assertEquals(lines.size(), results.size());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(orderRepository, never()).transitionStatuses(any(), any(), any(), any());
+    }
+
+    private static OrderBulkUpdateStatusDTO bulkStatusUpdate(OrderStatusLineDTO... lines) {
+        OrderBulkUpdateStatusDTO orderBulkUpdateStatusDTO = new OrderBulkUpdateStatusDTO();
+        orderBulkUpdateStatusDTO.setOrders(List.of(lines));
+        return orderBulkUpdateStatusDTO;
+    }
+
+    private static OrderStatusLineDTO statusLine(UUID orderId, OrderStatus status) {
+        OrderStatusLineDTO orderStatusLineDTO = new OrderStatusLineDTO();
+        orderStatusLineDTO.setOrderId(orderId);
+        orderStatusLineDTO.setStatus(status);
+        return orderStatusLineDTO;
+    }
+
+    private static OrderUpdateStatusDTO statusUpdate(UUID orderId, OrderStatus status) {
+        OrderUpdateStatusDTO orderUpdateStatusDTO = new OrderUpdateStatusDTO();
+        orderUpdateStatusDTO.setOrderId(orderId);
+        orderUpdateStatusDTO.setStatus(status);
+        return orderUpdateStatusDTO;
+    }
+}
@@ -1,19 +1,42 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.CursorPageDTO;
 import com.evertec.ecommerce.dto.ProductDTO;
+import com.evertec.ecommerce.dto.ProductSearchResultDTO;
+import com.evertec.ecommerce.dto.ProductStockDTO;
 import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.exceptions.BadRequestException;
+import com.evertec.ecommerce.exceptions.NotFoundException;
 import com.evertec.ecommerce.repositories.ProductRepository;
+import com.evertec.ecommerce.service.InventoryService;
+import com.evertec.ecommerce.utils.ExportFormat;
+import com.evertec.ecommerce.utils.KeysetCursor;
+import com.evertec.ecommerce.utils.ProductCache;
+import com.evertec.ecommerce.utils.ProductSearchIndex;
+import com.evertec.ecommerce.utils.SortDirection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 class ProductServiceImplTest {
@@ -21,6 +44,21 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -43,13 +81,14 @@ class ProductServiceImplTest {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setName("Test Product");
         productDTO.setDescription("Test Description");
-        productDTO.setPrice(10.5);
+        productDTO.setPrice(new BigDecimal("10.50"));
+        productDTO.setStock(25);
 
         Product savedProduct = Product.builder()
                 .id(UUID.randomUUID())
                 .name("Test Product")
                 .description("Test Description")
-                .price(10.5)
+                .price(new BigDecimal("10.50"))
                 .build();
 
         when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
@@ -62,5 +101,180 @@ class ProductServiceImplTest {
         assertEquals(savedProduct.getDescription(), result.getDescription());
         assertEquals(savedProduct.getPrice(), result.getPrice());
         assertEquals(savedProduct.getId(), result.getId());
+        verify(productCache).invalidateAfterCommit(savedProduct.getId());
+        verify(inventoryService).initializeStock(savedProduct, 25);
+        verify(productSearchIndex).addAfterCommit(savedProduct);
+    }
+
+    /**
+     * Tests that the stock of a product is read from the inventory, while the product itself is
+     * resolved through the cache.
+     */
+    @Test
+    @DisplayName("Test getProductStock - Reads current stock")
+    void testGetProductStock() {
+        UUID productId = UUID.randomUUID();
+        when(productCache.get(productId)).thenReturn(Optional.of(Product.builder().id(productId).build()));
+        when(inventoryService.getStock(productId)).thenReturn(42L);
+
+        ProductStockDTO stock = productService.getProductStock(productId);
+
+        assertEquals(productId, stock.getProductId());
+        assertEquals(42L, stock.getStock());
+        verify(productRepository, never()).findById(any());
+    }
+
+    /**
+     * Tests that search results keep the ranking of the index even though the products are loaded
+     * in no particular order, and that the limit is clamped to the maximum page size.
+     */
+    @Test
+    @DisplayName("Test searchProducts - Keeps index ranking")
+    void testSearchProductsKeepsIndexRanking() {
+        Product best = Product.builder().id(UUID.randomUUID()).name("Gaming laptop").build();
+        Product second = Product.builder().id(UUID.randomUUID()).name("Laptop bag").build();
+        when(productSearchIndex.search("laptop", ProductServiceImpl.MAX_PAGE_SIZE)).thenReturn(new ProductSearchIndex.SearchResult(2,
+                List.of(new ProductSearchIndex.Hit(best.getId(), 2f), new ProductSearchIndex.Hit(second.getId(), 1f))));
+        when(productRepository.loadAllById(List.of(best.getId(), second.getId()))).thenReturn(List.of(second, best));
+
+        ProductSearchResultDTO result = productService.searchProducts("laptop", 1000);
+
+        assertEquals("laptop", result.getQuery());
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(best, second), result.getItems());
+    }
+
+    /**
+     * Tests that a query without any searchable word is rejected before reaching the index.
+     */
+    @Test
+    @DisplayName("Test searchProducts - Query without words is rejected")
+    void testSearchProductsBlankQueryThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.searchProducts(" -- ", 20));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    /**
+     * Tests that getProductById is served by the product cache and never queries the repository directly.
+     */
+    @Test
+    @DisplayName("Test getProductById - Served from cache")
+    void testGetProductByIdServedFromCache() {
+        UUID productId = UUID.randomUUID();
+        Product product = Product.builder().id(productId).name("Cached").build();
+        when(productCache.get(productId)).thenReturn(Optional.of(product));
+
+        assertEquals(product, productService.getProductById(productId));
+        verify(productRepository, never()).findById(any());
+    }
+
+    /**
+     * Tests that a cached negative lookup is reported as a NotFoundException.
+     */
+    @Test
+    @DisplayName("Test getProductById - Missing product throws NotFoundException")
+    void testGetProductByIdNotFound() {
+        UUID productId = UUID.randomUUID();
+        when(productCache.get(productId)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> productService.getProductById(productId));
+        assertEquals("Product not found with id: " + productId, exception.getMessage());
+    }
+
+    /**
+     * Tests that the first page fetches one extra row to detect the next page and returns a cursor
+     * pointing at the last product of the page.
+     */
+    @Test
+    @DisplayName("Test getProducts - First page returns next cursor")
+    void testGetProductsFirstPageReturnsNextCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        Product first = Product.builder().id(UUID.randomUUID()).createdAt(now).build();
+        Product second = Product.builder().id(UUID.randomUUID()).createdAt(now.plusSeconds(1)).build();
+        Product third = Product.builder().id(UUID.randomUUID()).createdAt(now.plusSeconds(2)).build();
+
+        when(productRepository.findAllByOrderByCreatedAtAscIdAsc(any())).thenReturn(List.of(first, second, third));
+
+        CursorPageDTO<Product> page = productService.getProducts(null, 2, SortDirection.ASC);
+
+        assertEquals(List.of(first, second), page.getItems());
+        assertTrue(page.isHasNext());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor(), SortDirection.ASC);
+        assertEquals(second.getId(), cursor.id());
+        assertEquals(second.getCreatedAt(), cursor.createdAt());
+    }
+
+    /**
+     * Tests that a continuation token resumes the scan after the product it points at and that the
+     * last page carries no cursor.
+     */
+    @Test
+    @DisplayName("Test getProducts - Cursor resumes after last product")
+    void testGetProductsWithCursorResumesAfterLastProduct() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        UUID lastId = UUID.randomUUID();
+        String cursor = new KeysetCursor(SortDirection.DESC, createdAt, lastId).encode();
+        Product next = Product.builder().id(UUID.randomUUID()).createdAt(createdAt.minusSeconds(1)).build();
+
+        when(productRepository.findPageBefore(eq(createdAt), eq(lastId), any())).thenReturn(List.of(next));
+
+        CursorPageDTO<Product> page = productService.getProducts(cursor, 20, SortDirection.DESC);
+
+        assertEquals(List.of(next), page.getItems());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        verify(productRepository, never()).findAllByOrderByCreatedAtDescIdDesc(any());
+    }
+
+    /**
+     * Tests that a malformed cursor or a cursor issued for another sort direction is rejected.
+     */
+    @Test
+    @DisplayName("Test getProducts - Invalid cursor is rejected")
+    void testGetProductsInvalidCursorThrowsBadRequest() {
+        String ascCursor = new KeysetCursor(SortDirection.ASC, LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThrows(BadRequestException.class, () -> productService.getProducts("not-a-cursor", 20, SortDirection.ASC));
+        assertThrows(BadRequestException.class, () -> productService.getProducts(ascCursor, 20, SortDirection.DESC));
+    }
+
+    /**
+     * Tests that the NDJSON export writes one JSON document per line and detaches every
+     * product from the persistence context once it has been written.
+     */
+    @Test
+    @DisplayName("Test exportProducts - NDJSON writes one product per line")
+    void testExportProductsNdjson() throws IOException {
+        Product laptop = Product.builder().id(UUID.randomUUID()).name("Laptop").description("Fast").price(new BigDecimal("10.00")).build();
+        Product mouse = Product.builder().id(UUID.randomUUID()).name("Mouse").description("Wireless").price(new BigDecimal("5.00")).build();
+        when(productRepository.streamAll()).thenReturn(Stream.of(laptop, mouse));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        productService.exportProducts(ExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Laptop", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals(mouse.getId().toString(), objectMapper.readTree(lines[1]).get("id").asText());
+        verify(entityManager).detach(laptop);
+        verify(entityManager).detach(mouse);
+    }
+
+    /**
+     * Tests that the CSV export writes a header row and quotes values containing separators or quotes.
+     */
+    @Test
+    @DisplayName("Test exportProducts - CSV escapes values")
+    void testExportProductsCsv() throws IOException {
+        UUID productId = UUID.randomUUID();
+        Product product = Product.builder().id(productId).name("Monitor, 4K").description("The \"best\"").price(new BigDecimal("300.00")).build();
+        when(productRepository.streamAll()).thenReturn(Stream.of(product));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        productService.exportProducts(ExportFormat.CSV, outputStream);
+
+        assertEquals("id,name,description,price,createdAt,updatedAt\n"
+                        + productId + ",\"Monitor, 4K\",\"The \"\"best\"\"\",300.00,null,null\n",
+                outputStream.toString(StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.evertec.ecommerce.serviceImpl;
+
+import com.evertec.ecommerce.dto.UserCreateAndLoginDTO;
+import com.evertec.ecommerce.exceptions.EmailAlreadyExistsException;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires thousands of parallel sign-ups against the real service and database, several of them for
+ * each email, and checks that the unique constraint alone decides the winner, with a single
+ * statement per sign-up.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-signup-concurrency",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.bcrypt.strength=4",
+        "security.password-hasher.queue-capacity=10000",
+        // Statements are counted globally; keep the outbox poller quiet
+        "outbox.dispatcher.enabled=false"
+})
+class UserServiceImplConcurrencyTest {
+
+    private static final int EMAILS = 500;
+    private static final int SIGN_UPS_PER_EMAIL = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Tests that concurrent sign-ups create exactly one user per email, that every other attempt
+     * fails with an EmailAlreadyExistsException raised by the unique constraint, and that each
+     * sign-up issues exactly one statement, its INSERT.
+     */
+    @Test
+    void createUser_ConcurrentSignUpsInsertOneUserPerEmail() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long usersBefore = userRepository.count();
+        statistics.clear();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int attempt = 0; attempt < SIGN_UPS_PER_EMAIL; attempt++) {
+                for (int email = 0; email < EMAILS; email++) {
+                    UserCreateAndLoginDTO userCreateAndLoginDTO = new UserCreateAndLoginDTO();
+                    userCreateAndLoginDTO.setEmail("signup" + email + "@example.com");
+                    userCreateAndLoginDTO.setPassword("password123");
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            userService.createUser(userCreateAndLoginDTO);
+                            return true;
+                        } catch (EmailAlreadyExistsException e) {
+                            return false;
+                        }
+                    }));
+                }
+            }
+            start.countDown();
+        }
+
+        int created = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                created++;
+            }
+        }
+        long statements = statistics.getPrepareStatementCount();
+
+        long signUps = (long) EMAILS * SIGN_UPS_PER_EMAIL;
+        assertEquals(EMAILS, created);
+        assertEquals(usersBefore + EMAILS, userRepository.count());
+        // One INSERT per sign-up and no lookup; userRepository.count() runs after the statistics are read
+        assertEquals(signUps, statements);
+    }
+}
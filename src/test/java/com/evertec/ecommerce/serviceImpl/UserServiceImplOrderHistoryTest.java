@@ -0,0 +1,153 @@
+package com.evertec.ecommerce.serviceImpl;
+
+import com.evertec.ecommerce.dto.CursorPageDTO;
+import com.evertec.ecommerce.dto.OrderHistoryQueryDTO;
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.BadRequestException;
+import com.evertec.ecommerce.repositories.OrderRepository;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.UserService;
+import com.evertec.ecommerce.utils.OrderStatus;
+import com.evertec.ecommerce.utils.SortDirection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link UserService#getOrdersByUserId} against the database with a user whose orders were
+ * created one per day, alternating between PENDING and COMPLETED, next to another user's orders.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-order-history",
+        "spring.jpa.show-sql=false",
+        "outbox.dispatcher.enabled=false"
+})
+class UserServiceImplOrderHistoryTest {
+
+    private static final int ORDERS = 6;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+    // Indexed by the day the order was created on, starting at FIRST_DAY
+    private final List<UUID> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userId = createUserWithOrders(orderIds);
+        // Same days and statuses for someone else, which must never show up
+        createUserWithOrders(new ArrayList<>());
+    }
+
+    /**
+     * Tests that the status filter and the [from, to) range apply together, newest first.
+     */
+    @Test
+    void getOrdersByUserId_FiltersByStatusAndDateRange() {
+        OrderHistoryQueryDTO query = new OrderHistoryQueryDTO();
+        query.setStatus(OrderStatus.PENDING);
+        query.setFrom(FIRST_DAY.plusDays(2));
+        query.setTo(FIRST_DAY.plusDays(4));
+
+        CursorPageDTO<Order> page = userService.getOrdersByUserId(userId, query);
+
+        assertEquals(List.of(orderIds.get(2)), ids(page));
+        assertFalse(page.isHasNext());
+    }
+
+    /**
+     * Tests each filter on its own: status only in ascending order, then the range only, whose
+     * upper bound is exclusive.
+     */
+    @Test
+    void getOrdersByUserId_AppliesEachFilterAlone() {
+        OrderHistoryQueryDTO byStatus = new OrderHistoryQueryDTO();
+        byStatus.setStatus(OrderStatus.COMPLETED);
+        byStatus.setSort(SortDirection.ASC);
+        assertEquals(List.of(orderIds.get(1), orderIds.get(3), orderIds.get(5)), ids(userService.getOrdersByUserId(userId, byStatus)));
+
+        OrderHistoryQueryDTO byRange = new OrderHistoryQueryDTO();
+        byRange.setFrom(FIRST_DAY.plusDays(1));
+        byRange.setTo(FIRST_DAY.plusDays(3));
+        assertEquals(List.of(orderIds.get(2), orderIds.get(1)), ids(userService.getOrdersByUserId(userId, byRange)));
+    }
+
+    /**
+     * Tests that following the next cursor walks every order exactly once, in order, and that the
+     * last page carries no cursor.
+     */
+    @Test
+    void getOrdersByUserId_NextCursorWalksAllPages() {
+        OrderHistoryQueryDTO query = new OrderHistoryQueryDTO();
+        query.setSize(4);
+
+        CursorPageDTO<Order> first = userService.getOrdersByUserId(userId, query);
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getNextCursor());
+
+        query.setCursor(first.getNextCursor());
+        CursorPageDTO<Order> second = userService.getOrdersByUserId(userId, query);
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+
+        List<UUID> walked = new ArrayList<>(ids(first));
+        walked.addAll(ids(second));
+        assertEquals(orderIds.reversed(), walked);
+    }
+
+    /**
+     * Tests that a range whose start is not before its end is rejected, and so is a cursor issued
+     * for the opposite sort.
+     */
+    @Test
+    void getOrdersByUserId_RejectsInvalidRangeAndCursor() {
+        OrderHistoryQueryDTO emptyRange = new OrderHistoryQueryDTO();
+        emptyRange.setFrom(FIRST_DAY);
+        emptyRange.setTo(FIRST_DAY);
+        assertThrows(BadRequestException.class, () -> userService.getOrdersByUserId(userId, emptyRange));
+
+        OrderHistoryQueryDTO ascending = new OrderHistoryQueryDTO();
+        ascending.setSize(1);
+        ascending.setSort(SortDirection.ASC);
+        String ascendingCursor = userService.getOrdersByUserId(userId, ascending).getNextCursor();
+        OrderHistoryQueryDTO descending = new OrderHistoryQueryDTO();
+        descending.setCursor(ascendingCursor);
+        assertThrows(BadRequestException.class, () -> userService.getOrdersByUserId(userId, descending));
+    }
+
+    private UUID createUserWithOrders(List<UUID> ids) {
+        User user = userRepository.save(User.builder().email(UUID.randomUUID() + "@history.example.com").password("secret").build());
+        for (int day = 0; day < ORDERS; day++) {
+            Order order = orderRepository.save(Order.builder().user(user)
+                    .orderStatus(day % 2 == 0 ? OrderStatus.PENDING : OrderStatus.COMPLETED).build());
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", FIRST_DAY.plusDays(day), order.getId());
+            ids.add(order.getId());
+        }
+        return user.getId();
+    }
+
+    private static List<UUID> ids(CursorPageDTO<Order> page) {
+        return page.getItems().stream().map(Order::getId).toList();
+    }
+}
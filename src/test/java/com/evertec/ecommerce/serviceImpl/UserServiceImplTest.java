@@ -1,16 +1,29 @@
 package com.evertec.ecommerce.serviceImpl;
 
+import com.evertec.ecommerce.dto.OrderHistoryQueryDTO;
 import com.evertec.ecommerce.dto.UserCreateAndLoginDTO;
 import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.BadRequestException;
 import com.evertec.ecommerce.exceptions.EmailAlreadyExistsException;
+import com.evertec.ecommerce.exceptions.NotFoundException;
+import com.evertec.ecommerce.exceptions.TooManyRequestsException;
+import com.evertec.ecommerce.repositories.OrderRepository;
 import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.utils.JwtPrincipalCache;
+import com.evertec.ecommerce.utils.JwtTokenUtil;
+import com.evertec.ecommerce.utils.PasswordHasher;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,18 +37,30 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Mock
+    private JwtPrincipalCache jwtPrincipalCache;
+
     /**
      * Tests the successful creation of a user in the system.
      * <p>
      * This test ensures that a new user can be created when the provided email does not
      * already exist in the database. It verifies that the user is saved correctly with
-     * the specified email and password, and that the created user object is returned as expected.
+     * the specified email and the hashed password, and that the created user object is returned as expected.
      * <p>
      * Test steps:
      * 1. A `UserCreateAndLoginDTO` is instantiated and populated with a valid email and password.
      * 2. A `User` object is built based on the provided DTO data.
-     * 3. Mock behavior is defined to simulate an empty response from the `findByEmail`
-     *    repository method and a successful save operation.
+     * 3. Mock behavior is defined to simulate the password hash and a successful
+     *    `saveAndFlush` operation.
      * 4. The `createUser` method of the `userService` is invoked with the DTO.
      * 5. Assertions are performed to ensure:
      *    - The created user object is not null.
@@ -47,53 +72,137 @@ public class UserServiceImplTest {
         userCreateAndLoginDTO.setEmail("test@example.com");
         userCreateAndLoginDTO.setPassword("password123");
 
-        User user = User.builder()
-                .email(userCreateAndLoginDTO.getEmail())
-                .password(userCreateAndLoginDTO.getPassword())
-                .build();
-
-        Mockito.when(userRepository.findByEmail(userCreateAndLoginDTO.getEmail())).thenReturn(Optional.empty());
-        Mockito.when(userRepository.save(any(User.class))).thenReturn(user);
+        Mockito.when(passwordHasher.encode(userCreateAndLoginDTO.getPassword())).thenReturn("hashed");
+        Mockito.when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         User createdUser = userService.createUser(userCreateAndLoginDTO);
 
         assertNotNull(createdUser);
         assertEquals(userCreateAndLoginDTO.getEmail(), createdUser.getEmail());
-        assertEquals(userCreateAndLoginDTO.getPassword(), createdUser.getPassword());
+        assertEquals("hashed", createdUser.getPassword());
     }
 
     /**
-     * Tests that the createUser method of the UserService properly throws an EmailAlreadyExistsException
-     * when attempting to create a user with an email that already exists in the system.
-     * <p>
-     * This test validates the following behaviors:
-     * - If the UserRepository indicates that a user with the provided email already exists,
-     *   the createUser method should throw an EmailAlreadyExistsException.
-     * - The UserRepository's save method is not called when the exception is thrown.
-     * <p>
-     * Test Steps:
-     * 1. Arrange: Create a UserCreateAndLoginDTO object with an email corresponding to an
-     *    already existing user, mock the UserRepository to return an existing user for that email.
-     * 2. Act: Call the createUser method of the UserService.
-     * 3. Assert:
-     *    - Ensure that an EmailAlreadyExistsException is thrown.
-     *    - Verify that the save method of the UserRepository is never invoked.
+     * Tests that createUser propagates the TooManyRequestsException raised when the password
+     * hashing pool is saturated, without saving the user.
      */
     @Test
-    void createUser_ThrowsEmailAlreadyExistsException() {
+    void createUser_ThrowsTooManyRequestsExceptionWhenHashingIsSaturated() {
         UserCreateAndLoginDTO userCreateAndLoginDTO = new UserCreateAndLoginDTO();
-        userCreateAndLoginDTO.setEmail("existing@example.com");
+        userCreateAndLoginDTO.setEmail("test@example.com");
         userCreateAndLoginDTO.setPassword("password123");
 
-        User existingUser = User.builder()
+        Mockito.when(passwordHasher.encode(userCreateAndLoginDTO.getPassword()))
+                .thenThrow(new TooManyRequestsException("Too many concurrent password hashing requests, please retry"));
+
+        assertThrows(TooManyRequestsException.class, () -> userService.createUser(userCreateAndLoginDTO));
+
+        Mockito.verify(userRepository, Mockito.never()).saveAndFlush(any(User.class));
+    }
+
+    /**
+     * Tests that a sign-up for an email that is already registered, detected by the email unique
+     * constraint on insert, is reported as an existing email.
+     */
+    @Test
+    void createUser_ThrowsEmailAlreadyExistsExceptionOnEmailConstraintViolation() {
+        UserCreateAndLoginDTO userCreateAndLoginDTO = new UserCreateAndLoginDTO();
+        userCreateAndLoginDTO.setEmail("racing@example.com");
+        userCreateAndLoginDTO.setPassword("password123");
+
+        Mockito.when(passwordHasher.encode(userCreateAndLoginDTO.getPassword())).thenReturn("hashed");
+        Mockito.when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", uniqueViolation("PUBLIC.UK_APP_USERS_EMAIL_INDEX_8")));
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.createUser(userCreateAndLoginDTO));
+    }
+
+    /**
+     * Tests that a unique violation of any other constraint is not mistaken for an existing email.
+     */
+    @Test
+    void createUser_RethrowsOtherUniqueViolations() {
+        UserCreateAndLoginDTO userCreateAndLoginDTO = new UserCreateAndLoginDTO();
+        userCreateAndLoginDTO.setEmail("test@example.com");
+        userCreateAndLoginDTO.setPassword("password123");
+
+        Mockito.when(passwordHasher.encode(userCreateAndLoginDTO.getPassword())).thenReturn("hashed");
+        Mockito.when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", uniqueViolation("PUBLIC.PRIMARY_KEY_9")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(userCreateAndLoginDTO));
+    }
+
+    /**
+     * Tests that a successful login issues a token carrying the user's current token version
+     * without writing the user back to the database.
+     */
+    @Test
+    void loginUser_IssuesVersionedTokenWithoutSavingUser() {
+        UserCreateAndLoginDTO userCreateAndLoginDTO = new UserCreateAndLoginDTO();
+        userCreateAndLoginDTO.setEmail("test@example.com");
+        userCreateAndLoginDTO.setPassword("password123");
+
+        User user = User.builder()
                 .email(userCreateAndLoginDTO.getEmail())
-                .password(userCreateAndLoginDTO.getPassword())
+                .password("hashed")
+                .tokenVersion(3)
                 .build();
 
-        Mockito.when(userRepository.findByEmail(userCreateAndLoginDTO.getEmail())).thenReturn(Optional.of(existingUser));
+        Mockito.when(userRepository.findByEmail(userCreateAndLoginDTO.getEmail())).thenReturn(Optional.of(user));
+        Mockito.when(passwordHasher.matches("password123", "hashed")).thenReturn(true);
+        Mockito.when(jwtTokenUtil.generateToken(user.getEmail(), 3)).thenReturn("new-token");
 
-        assertThrows(EmailAlreadyExistsException.class, () -> userService.createUser(userCreateAndLoginDTO));
+        User loggedUser = userService.loginUser(userCreateAndLoginDTO);
 
+        assertEquals("new-token", loggedUser.getToken());
         Mockito.verify(userRepository, Mockito.never()).save(any(User.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that revoking a user's tokens increments the token version and evicts the user's
+     * tokens from the principal cache.
+     */
+    @Test
+    void revokeTokens_IncrementsTokenVersionAndEvictsPrincipalCache() {
+        Mockito.when(userRepository.incrementTokenVersion("test@example.com")).thenReturn(1);
+
+        userService.revokeTokens("test@example.com");
+
+        Mockito.verify(jwtPrincipalCache).invalidateAll("test@example.com");
+    }
+
+    /**
+     * Tests that revoking the tokens of an unknown user throws a NotFoundException and leaves the
+     * principal cache untouched.
+     */
+    @Test
+    void revokeTokens_ThrowsNotFoundExceptionForUnknownUser() {
+        Mockito.when(userRepository.incrementTokenVersion("missing@example.com")).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> userService.revokeTokens("missing@example.com"));
+
+        Mockito.verify(jwtPrincipalCache, Mockito.never()).invalidateAll(any());
+    }
+
+    /**
+     * Tests that an order history range whose start is not before its end is rejected before any
+     * query runs.
+     */
+    @Test
+    void getOrdersByUserId_ThrowsBadRequestExceptionWhenFromIsNotBeforeTo() {
+        OrderHistoryQueryDTO orderHistoryQueryDTO = new OrderHistoryQueryDTO();
+        orderHistoryQueryDTO.setFrom(LocalDateTime.of(2025, 2, 1, 0, 0));
+        orderHistoryQueryDTO.setTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> userService.getOrdersByUserId(UUID.randomUUID(), orderHistoryQueryDTO));
+        assertEquals("'from' must be before 'to'", exception.getMessage());
+        Mockito.verifyNoInteractions(orderRepository);
+    }
+
+    private static ConstraintViolationException uniqueViolation(String constraintName) {
+        return new ConstraintViolationException("Unique index or primary key violation",
+                new SQLException("Unique index or primary key violation", "23505"), ConstraintViolationException.ConstraintKind.UNIQUE, constraintName);
+    }
+}
@@ -0,0 +1,134 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.dto.OrderUpdateStatusDTO;
+import com.evertec.ecommerce.entities.Order;
+import com.evertec.ecommerce.entities.OutboxEvent;
+import com.evertec.ecommerce.entities.User;
+import com.evertec.ecommerce.exceptions.ConflictException;
+import com.evertec.ecommerce.repositories.OutboxEventRepository;
+import com.evertec.ecommerce.repositories.UserRepository;
+import com.evertec.ecommerce.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Drives order changes through the real service and database and drains the outbox with a
+ * dispatcher built in the test, so polls happen exactly when the test asks for them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-dispatcher",
+        "spring.jpa.show-sql=false",
+        "outbox.sink=in-memory",
+        "outbox.dispatcher.enabled=false"
+})
+class OutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InMemoryOutboxSink inMemoryOutboxSink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        inMemoryOutboxSink.clear();
+        userId = userRepository.save(User.builder().email(UUID.randomUUID() + "@outbox.test").password("secret").build()).getId();
+    }
+
+    /**
+     * Tests that every order change is recorded and delivered once, in the order it happened, in
+     * batches, and that delivered events are marked as published.
+     */
+    @Test
+    void dispatch_DeliversOrderEventsInOrder() {
+        Order completed = orderService.createOrder(userId);
+        Order cancelled = orderService.createOrder(userId);
+        orderService.updateOrderStatus(statusUpdate(completed.getId(), OrderStatus.COMPLETED));
+        orderService.cancelOrder(cancelled.getId());
+        // A no-op and a rejected transition record nothing
+        orderService.cancelOrder(cancelled.getId());
+        assertThrows(ConflictException.class, () -> orderService.cancelOrder(completed.getId()));
+
+        dispatcher(inMemoryOutboxSink).dispatch();
+
+        assertEquals(List.of(
+                completed.getId() + " ORDER_CREATED",
+                cancelled.getId() + " ORDER_CREATED",
+                completed.getId() + " ORDER_COMPLETED",
+                cancelled.getId() + " ORDER_CANCELLED"), describe(inMemoryOutboxSink.getEvents()));
+        assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+        assertEquals(4, meterRegistry.get("outbox.events.published").counter().count());
+        assertEquals(0, meterRegistry.get("outbox.events.pending").gauge().value());
+    }
+
+    /**
+     * Tests that a batch the sink fails to deliver stays pending and is delivered on the next poll.
+     */
+    @Test
+    void dispatch_RedeliversBatchAfterSinkFailure() {
+        Order order = orderService.createOrder(userId);
+        AtomicInteger attempts = new AtomicInteger();
+        List<OutboxEvent> delivered = new ArrayList<>();
+        OutboxDispatcher dispatcher = dispatcher(events -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Sink unavailable");
+            }
+            delivered.addAll(events);
+        });
+
+        dispatcher.dispatch();
+
+        assertEquals(1, outboxEventRepository.countByPublishedAtIsNull());
+        assertEquals(1, meterRegistry.get("outbox.dispatch.failures").counter().count());
+        assertEquals(1, meterRegistry.get("outbox.events.pending").gauge().value());
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(order.getId() + " ORDER_CREATED"), describe(delivered));
+        assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+    }
+
+    private OutboxDispatcher dispatcher(OutboxSink outboxSink) {
+        return new OutboxDispatcher(outboxEventRepository, outboxSink, transactionTemplate, meterRegistry, BATCH_SIZE, Duration.ofDays(7));
+    }
+
+    private static List<String> describe(List<OutboxEvent> events) {
+        return events.stream().map(event -> event.getAggregateId() + " " + event.getEventType()).toList();
+    }
+
+    private static OrderUpdateStatusDTO statusUpdate(UUID orderId, OrderStatus status) {
+        OrderUpdateStatusDTO orderUpdateStatusDTO = new OrderUpdateStatusDTO();
+        orderUpdateStatusDTO.setOrderId(orderId);
+        orderUpdateStatusDTO.setStatus(status);
+        return orderUpdateStatusDTO;
+    }
+}
@@ -0,0 +1,93 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.exceptions.GlobalExceptionHandler;
+import com.evertec.ecommerce.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saturates a {@link PasswordHasher} with one thread and a queue of one, using an encoder that
+ * blocks until released, to check how hashes beyond the pool's capacity are turned away.
+ */
+class PasswordHasherTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BCryptPasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHasher passwordHasher = new PasswordHasher(blockingEncoder, meterRegistry, 1, 1);
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.close();
+        passwordHasher.shutdown();
+    }
+
+    /**
+     * Tests that once the hashing thread is busy and the queue is full, the next hash is rejected
+     * with a TooManyRequestsException and counted, that the rejection maps to a 429 with a
+     * Retry-After header, and that the accepted hashes still complete.
+     */
+    @Test
+    void encode_RejectsWhenPoolAndQueueAreFull() throws Exception {
+        Future<String> running = callers.submit(() -> passwordHasher.encode("running"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> passwordHasher.encode("queued"));
+        // The queued caller has submitted once the pool reports a waiting task
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHasher").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        TooManyRequestsException rejection = assertThrows(TooManyRequestsException.class, () -> passwordHasher.encode("rejected"));
+
+        assertEquals(1.0, meterRegistry.get("password.hasher.rejected").counter().count());
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler().handleTooManyRequestsException(rejection);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+        assertTrue(blockingEncoder.matches("running", running.get(10, TimeUnit.SECONDS)));
+        assertTrue(blockingEncoder.matches("queued", queued.get(10, TimeUnit.SECONDS)));
+    }
+
+    /**
+     * Tests that hashes within capacity are not counted as rejected.
+     */
+    @Test
+    void matches_AcceptsWithinCapacity() {
+        release.countDown();
+        String hash = passwordHasher.encode("secret");
+
+        assertTrue(passwordHasher.matches("secret", hash));
+        assertEquals(0.0, meterRegistry.get("password.hasher.rejected").counter().count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.Product;
+import com.evertec.ecommerce.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks when {@link ProductCache} evicts entries relative to the transaction creating a product.
+ */
+class ProductCacheTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductCache productCache = new ProductCache(productRepository, new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(5), Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        productCache.close();
+    }
+
+    /**
+     * Tests that a failing load surfaces the repository's exception itself rather than the
+     * CompletionException of the load future, and that the failure is not cached.
+     */
+    @Test
+    void get_RethrowsLoaderExceptionUnwrapped() {
+        UUID productId = UUID.randomUUID();
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection refused");
+        when(productRepository.findById(productId)).thenThrow(failure).thenReturn(Optional.empty());
+
+        assertSame(failure, assertThrows(DataAccessResourceFailureException.class, () -> productCache.get(productId)));
+        assertTrue(productCache.get(productId).isEmpty());
+    }
+
+    /**
+     * Tests that a product read as missing while its creating transaction is still open is evicted
+     * at commit, so the product is found right after the commit instead of after the negative TTL.
+     */
+    @Test
+    void invalidateAfterCommit_EvictsNegativeEntryCachedBeforeCommit() {
+        UUID productId = UUID.randomUUID();
+        Product product = Product.builder().id(productId).name("Desk").build();
+        when(productRepository.findById(productId)).thenReturn(Optional.empty(), Optional.of(product));
+
+        TransactionSynchronizationManager.initSynchronization();
+        productCache.invalidateAfterCommit(productId);
+        // A concurrent read before the commit does not see the product yet
+        assertEquals(Optional.empty(), productCache.get(productId));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Optional.of(product), productCache.get(productId));
+    }
+
+    /**
+     * Tests that a rolled back transaction leaves the cache untouched.
+     */
+    @Test
+    void invalidateAfterCommit_KeepsEntryOnRollback() {
+        UUID productId = UUID.randomUUID();
+        when(productRepository.findById(productId)).thenReturn(Optional.empty(), Optional.of(Product.builder().id(productId).build()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        productCache.invalidateAfterCommit(productId);
+        assertEquals(Optional.empty(), productCache.get(productId));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(Optional.empty(), productCache.get(productId));
+    }
+}
@@ -0,0 +1,170 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.entities.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the tokenizer, matching and ranking of {@link ProductSearchIndex} on a handful of
+ * products.
+ */
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    /**
+     * Tests that every query word has to match, ignoring case, accents and punctuation.
+     */
+    @Test
+    void search_MatchesAllWordsIgnoringCaseAndAccents() {
+        Product laptop = add("Portátil Gaming", "16GB RAM, RTX graphics");
+        Product mouse = add("Gaming mouse", "Wireless, RGB");
+        add("Office chair", "Ergonomic");
+
+        assertEquals(List.of(laptop.getId()), ids(index.search("PORTATIL gaming", 10)));
+        assertEquals(List.of(mouse.getId()), ids(index.search("gaming: wireless!", 10)));
+        assertEquals(2, index.search("gaming", 10).total());
+        assertEquals(0, index.search("gaming chair", 10).total());
+    }
+
+    /**
+     * Tests that a word matches longer words starting with it, but ranks below an exact match, and
+     * that single characters are not expanded.
+     */
+    @Test
+    void search_ExpandsPrefixesBelowExactMatches() {
+        Product exact = add("Lap desk", "Wooden");
+        Product prefix = add("Laptop", "Thin and light");
+
+        assertEquals(List.of(exact.getId(), prefix.getId()), ids(index.search("lap", 10)));
+        assertEquals(List.of(prefix.getId()), ids(index.search("lapt", 10)));
+        assertEquals(0, index.search("l", 10).total());
+    }
+
+    /**
+     * Tests that a word in the name outranks the same word in the description and that the total
+     * counts every match even when fewer hits are returned.
+     */
+    @Test
+    void search_RanksNameMatchesFirstAndCountsAllMatches() {
+        Product inDescription = add("Backpack", "Fits a laptop");
+        Product inName = add("Laptop stand", "Aluminium");
+
+        ProductSearchIndex.SearchResult result = index.search("laptop", 1);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(inName.getId()), ids(result));
+        assertEquals(List.of(inName.getId(), inDescription.getId()), ids(index.search("laptop", 10)));
+    }
+
+    /**
+     * Tests that adding an already indexed product has no effect, including after the id table has
+     * been resized.
+     */
+    @Test
+    void add_IsIdempotent() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            products.add(add("Cable " + i, "USB"));
+        }
+        products.forEach(index::add);
+
+        assertEquals(5000, index.size());
+        assertEquals(5000, index.search("cable usb", 10).total());
+        // "42" also prefixes "420" to "429" and "4200" to "4299"
+        assertEquals(111, index.search("cable 42", 10).total());
+        assertEquals(products.get(42).getId(), index.search("cable 42", 10).hits().getFirst().productId());
+    }
+
+    /**
+     * Tests that a prefix shared by many terms follows all of them, including a term sorting after
+     * a hundred others, and counts every product it matches.
+     */
+    @Test
+    void search_FollowsEveryPrefixExpansion() {
+        for (int i = 0; i < 100; i++) {
+            add("Gaming lab" + i, "Accessory");
+        }
+        Product laptop = add("Gaming laptop", "16GB RAM");
+
+        assertEquals(List.of(laptop.getId()), ids(index.search("gaming la 16gb", 10)));
+        assertEquals(101, index.search("gaming la", 10).total());
+        assertEquals(100, index.search("lab", 200).hits().size());
+    }
+
+    /**
+     * Tests that a query made only of separators matches nothing.
+     */
+    @Test
+    void search_WithoutWordsReturnsNothing() {
+        add("Keyboard", "Mechanical");
+
+        assertEquals(0, index.search(" ,.- ", 10).total());
+    }
+
+    /**
+     * Tests that searches running while products are added, across several resizes of the
+     * document table, never fail and see each product either with all its terms or not at all:
+     * every product matches both query words, so the total always lies between the index size
+     * before and after the search.
+     */
+    @Test
+    void search_RunsConcurrentlyWithAdditions() throws Exception {
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<Future<Integer>> searches = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            for (int reader = 0; reader < 2; reader++) {
+                searches.add(executor.submit(() -> {
+                    int searchCount = 0;
+                    long previousTotal = 0;
+                    while (adding.get() || searchCount == 0) {
+                        int sizeBefore = index.size();
+                        ProductSearchIndex.SearchResult result = index.search("widget spare", 5);
+                        int sizeAfter = index.size();
+                        assertTrue(result.total() >= sizeBefore && result.total() <= sizeAfter,
+                                result.total() + " outside [" + sizeBefore + ", " + sizeAfter + "]");
+                        assertTrue(result.total() >= previousTotal);
+                        assertEquals(Math.min(5, result.total()), result.hits().size());
+                        previousTotal = result.total();
+                        searchCount++;
+                    }
+                    return searchCount;
+                }));
+            }
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        add("Widget " + i, "Spare part " + i);
+                    }
+                } finally {
+                    adding.set(false);
+                }
+            }).get();
+            for (Future<Integer> search : searches) {
+                assertTrue(search.get() > 0);
+            }
+        }
+
+        assertEquals(20_000, index.search("widget spare", 5).total());
+    }
+
+    private Product add(String name, String description) {
+        Product product = Product.builder().id(UUID.randomUUID()).name(name).description(description).build();
+        index.add(product);
+        return product;
+    }
+
+    private static List<UUID> ids(ProductSearchIndex.SearchResult result) {
+        return result.hits().stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.evertec.ecommerce.utils;
+
+import com.evertec.ecommerce.config.InspectingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs statements through an {@link InspectingDataSource} over a private H2 database and captures
+ * the entries handed to the log instead of writing them.
+ */
+class SlowQueryLogTest {
+
+    private final List<SlowQueryLog.Entry> entries = new CopyOnWriteArrayList<>();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query-log-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("INSERT INTO item VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+    }
+
+    /**
+     * Tests that a recorded query reports the rows read, the number of bind parameters and the
+     * calling method, but not the parameter values.
+     */
+    @Test
+    void record_ReportsRowsParametersAndOrigin() throws SQLException {
+        try (Connection connection = inspecting(Duration.ZERO, 0).getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM item WHERE name <> ? AND id > ?")) {
+            statement.setString(1, "secret");
+            statement.setInt(2, 0);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // Read every row
+                }
+            }
+        }
+
+        assertEquals(1, entries.size());
+        SlowQueryLog.Entry entry = entries.getFirst();
+        assertEquals("SELECT id FROM item WHERE name <> ? AND id > ?", entry.sql());
+        assertEquals(3, entry.rows());
+        assertEquals(2, entry.parameters());
+        assertEquals("SlowQueryLogTest.record_ReportsRowsParametersAndOrigin", entry.origin());
+    }
+
+    /**
+     * Tests that updates and batches report the rows they affected.
+     */
+    @Test
+    void record_ReportsAffectedRowsOfUpdatesAndBatches() throws SQLException {
+        try (Connection connection = inspecting(Duration.ZERO, 0).getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE item SET name = 'x'");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO item VALUES (?, ?)")) {
+                for (int id = 10; id < 12; id++) {
+                    statement.setInt(1, id);
+                    statement.setString(2, "new");
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        assertEquals(2, entries.size());
+        assertEquals(3, entries.get(0).rows());
+        assertEquals("INSERT INTO item VALUES (?, ?) [batch of 2]", entries.get(1).sql());
+        assertEquals(2, entries.get(1).rows());
+    }
+
+    /**
+     * Tests that statements faster than the threshold are not recorded when sampling is off.
+     */
+    @Test
+    void shouldRecord_SkipsFastStatementsWithoutSampling() throws SQLException {
+        try (Connection connection = inspecting(Duration.ofMinutes(1), 0).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM item").close();
+        }
+
+        assertTrue(entries.isEmpty());
+    }
+
+    /**
+     * Tests that string literals are masked in the logged SQL.
+     */
+    @Test
+    void redact_MasksStringLiterals() {
+        assertEquals("UPDATE item SET name = '?' WHERE id = 1 AND note = '?'",
+                SlowQueryLog.redact("UPDATE item SET name = 'it''s secret' WHERE id = 1 AND note = ''"));
+    }
+
+    private InspectingDataSource inspecting(Duration slowThreshold, double sampleRate) {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(new SimpleMeterRegistry(), slowThreshold, sampleRate, 10) {
+            @Override
+            public void record(Entry entry) {
+                entries.add(entry);
+            }
+        };
+        return new InspectingDataSource(h2, () -> slowQueryLog);
+    }
+}